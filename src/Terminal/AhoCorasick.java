@@ -0,0 +1,135 @@
+package Terminal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over bytes for searching many literals in one pass.
+ * The trie is turned into a full DFA; input bytes are first mapped to the small set of
+ * byte classes that actually occur in the patterns, which keeps the transition table compact.
+ */
+final class AhoCorasick {
+    private static final byte[] FOLD = new byte[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            FOLD[i] = (byte) (i >= 'A' && i <= 'Z' ? i + ('a' - 'A') : i);
+        }
+    }
+
+    private final int[] byteClasses = new int[256];
+    private final int classCount;
+    private final int[] transitions;
+    private final int[][] outputs;
+    private final int[] lengths;
+
+    AhoCorasick(List<byte[]> patterns, boolean ignoreCase) {
+        // Byte-Klassen: jedes in den Mustern vorkommende Byte bekommt eine eigene, alle anderen teilen Klasse 0
+        int classes = 1;
+        int totalLength = 0;
+        for (byte[] pattern : patterns) {
+            totalLength += pattern.length;
+            for (byte b : pattern) {
+                int folded = ignoreCase ? FOLD[b & 0xff] & 0xff : b & 0xff;
+                if (byteClasses[folded] == 0) {
+                    byteClasses[folded] = classes++;
+                }
+            }
+        }
+        if (ignoreCase) {
+            for (int b = 'A'; b <= 'Z'; b++) {
+                byteClasses[b] = byteClasses[b + ('a' - 'A')];
+            }
+        }
+        classCount = classes;
+
+        // Trie aufbauen
+        int[] table = new int[(totalLength + 1) * classCount];
+        Arrays.fill(table, -1);
+        List<List<Integer>> stateOutputs = new ArrayList<>();
+        stateOutputs.add(new ArrayList<>());
+        int states = 1;
+        lengths = new int[patterns.size()];
+
+        for (int id = 0; id < patterns.size(); id++) {
+            byte[] pattern = patterns.get(id);
+            lengths[id] = pattern.length;
+            int state = 0;
+            for (byte b : pattern) {
+                int index = state * classCount + byteClasses[b & 0xff];
+                if (table[index] == -1) {
+                    table[index] = states++;
+                    stateOutputs.add(new ArrayList<>());
+                }
+                state = table[index];
+            }
+            stateOutputs.get(state).add(id);
+        }
+
+        // Fehlerfunktion per Breitensuche, fehlende Übergänge direkt auflösen
+        transitions = Arrays.copyOf(table, states * classCount);
+        int[] failure = new int[states];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < classCount; c++) {
+            int next = transitions[c];
+            if (next == -1) {
+                transitions[c] = 0;
+            } else {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+
+        outputs = new int[states][];
+        outputs[0] = toArray(stateOutputs.get(0), null);
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = toArray(stateOutputs.get(state), outputs[failure[state]]);
+            for (int c = 0; c < classCount; c++) {
+                int index = state * classCount + c;
+                int next = transitions[index];
+                if (next == -1) {
+                    transitions[index] = transitions[failure[state] * classCount + c];
+                } else {
+                    failure[next] = transitions[failure[state] * classCount + c];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    int patternCount() {
+        return lengths.length;
+    }
+
+    int length(int pattern) {
+        return lengths[pattern];
+    }
+
+    int next(int state, byte b) {
+        return transitions[state * classCount + byteClasses[b & 0xff]];
+    }
+
+    /**
+     * Ids of all patterns that end in the given state, including those reached through
+     * suffix links.
+     */
+    int[] outputs(int state) {
+        return outputs[state];
+    }
+
+    private static int[] toArray(List<Integer> own, int[] inherited) {
+        int inheritedLength = inherited == null ? 0 : inherited.length;
+        int[] result = new int[own.size() + inheritedLength];
+        for (int i = 0; i < own.size(); i++) {
+            result[i] = own.get(i);
+        }
+        if (inheritedLength > 0) {
+            System.arraycopy(inherited, 0, result, own.size(), inheritedLength);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,44 @@
+package Terminal;
+
+/**
+ * {@code cache}: shows statistics of the {@link MetadataCache} or clears it.
+ */
+final class CacheCommand implements Command {
+    @Override
+    public String name() {
+        return "cache";
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"cache [stats|clear]\tShow or clear the directory metadata cache"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: cache [stats|clear]",
+                "Directory listings and file attributes used by ls, cd and tree are cached",
+                "and dropped as soon as the file system reports a change.",
+                "  stats - Show size, hit rate, evictions and invalidations (default)",
+                "  clear - Drop all cached entries and watches"
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        String action = arguments.operands.isEmpty() ? "stats" : arguments.operand(0);
+        if (action.equals("stats")) {
+            for (String line : MetadataCache.get().stats().split("\\R")) {
+                context.out.println(line);
+            }
+        } else if (action.equals("clear")) {
+            MetadataCache.get().clear();
+            context.out.println("Metadata cache cleared.");
+        } else {
+            context.err.println("Usage: cache [stats|clear]");
+            return USAGE;
+        }
+        return SUCCESS;
+    }
+}
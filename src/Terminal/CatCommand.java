@@ -0,0 +1,75 @@
+package Terminal;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * {@code cat}: writes files to the output, one after another.
+ */
+final class CatCommand implements Command {
+    @Override
+    public String name() {
+        return "cat";
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"cat [file...]\tDisplay (concatenate) the content of files"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: cat [file...]",
+                "Display the content of one or more files, concatenated.",
+                "Without files, or for \"-\", the input from a pipe is copied (e.g. ls | cat)."
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        if (arguments.operands.isEmpty()) {
+            if (context.in == null) {
+                context.err.println("Usage: cat <file>");
+                return USAGE;
+            }
+            return catInput(context);
+        }
+
+        int status = SUCCESS;
+        for (String fileName : arguments.operands) {
+            if (fileName.equals("-") && context.in != null) {
+                status = Math.max(status, catInput(context));
+                continue;
+            }
+            File file = context.resolve(fileName).toFile();
+            String filePath = file.getPath();
+
+            if (file.isDirectory()) {
+                context.err.println("Is a directory: " + filePath);
+                status = FAILURE;
+            } else if (file.exists()) {
+                try {
+                    context.io.addRead(CatEngine.cat(file.toPath(), context.out));
+                } catch (IOException e) {
+                    context.err.println("Failed to read file: " + e.getMessage());
+                    status = FAILURE;
+                }
+            } else {
+                context.err.println("File not found: " + filePath);
+                status = FAILURE;
+            }
+        }
+        return status;
+    }
+
+    private static int catInput(CommandContext context) {
+        try {
+            CatEngine.cat(context.in, context.out);
+            return SUCCESS;
+        } catch (IOException e) {
+            context.err.println("Failed to read input: " + e.getMessage());
+            return FAILURE;
+        }
+    }
+}
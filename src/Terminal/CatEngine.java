@@ -0,0 +1,67 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams file contents to a channel (usually the {@link TerminalOutput}) without decoding them.
+ * Regular files are mapped window by window, everything else (pipes, /proc files, the input
+ * of a pipeline stage) is read through a fixed direct buffer, so memory use does not depend
+ * on the file size.
+ */
+final class CatEngine {
+    private static final long WINDOW_SIZE = 16L * 1024 * 1024;
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private CatEngine() {
+    }
+
+    /**
+     * @return the number of bytes read from {@code file}
+     */
+    static long cat(Path file, WritableByteChannel out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            if (size == 0) {
+                // Dateien wie /proc/* melden Größe 0, haben aber Inhalt
+                return cat(channel, out);
+            }
+
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(WINDOW_SIZE, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                while (window.hasRemaining()) {
+                    out.write(window);
+                }
+                position += length;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * @return the number of bytes read from {@code in}
+     */
+    static long cat(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            buffer.clear();
+        }
+        return total;
+    }
+}
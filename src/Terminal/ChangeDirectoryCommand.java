@@ -0,0 +1,41 @@
+package Terminal;
+
+import java.nio.file.Path;
+
+/**
+ * {@code cd}: changes the current directory of the session.
+ */
+final class ChangeDirectoryCommand implements Command {
+    @Override
+    public String name() {
+        return "cd";
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"cd [directory]\tChange current directory"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: cd [directory]",
+                "Change the current directory.",
+                "Without a directory, or with ~, change to the home directory."
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        String directory = arguments.operand(0);
+        // Ohne Angabe ins Home-Verzeichnis des Benutzers wechseln
+        Path newDirectory = directory == null ? context.session.home() : context.resolve(directory);
+
+        if (MetadataCache.get().isDirectory(newDirectory)) {
+            context.session.setDirectory(newDirectory);
+            return SUCCESS;
+        }
+        context.err.println("Directory not found: " + directory);
+        return FAILURE;
+    }
+}
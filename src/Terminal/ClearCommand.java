@@ -0,0 +1,40 @@
+package Terminal;
+
+import java.io.IOException;
+
+/**
+ * {@code clear}: clears the screen with the system's own command.
+ */
+final class ClearCommand implements Command {
+    @Override
+    public String name() {
+        return "clear";
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"clear\tClear the terminal screen"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{"Usage: clear", "Clear the terminal screen."};
+    }
+
+    //TODO: clear/cls hat Fehler
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        context.out.flush();
+        try {
+            if (System.getProperty("os.name").contains("Windows")) {
+                new ProcessBuilder("cmd", "/c", "cls").inheritIO().start().waitFor();
+            } else {
+                new ProcessBuilder("bash", "-c", "clear").inheritIO().start().waitFor();
+            }
+            return SUCCESS;
+        } catch (IOException | InterruptedException e) {
+            context.err.println("Error clearing the screen: " + e.getMessage());
+            return FAILURE;
+        }
+    }
+}
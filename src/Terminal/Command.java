@@ -0,0 +1,39 @@
+package Terminal;
+
+import java.io.IOException;
+
+/**
+ * A command of the terminal. Built-in commands are registered by {@link CommandRegistry};
+ * further commands can be added without changing the terminal by listing their classes
+ * in {@code META-INF/services/Terminal.Command}.
+ *
+ * <p>Commands write their output to {@link CommandContext#out} and their error messages to
+ * {@link CommandContext#err}, and return an exit status like a process would.
+ */
+interface Command {
+    int SUCCESS = 0;
+    int FAILURE = 1;
+    int USAGE = 2;
+
+    String name();
+
+    /**
+     * The options of the command. The arguments are parsed against it before
+     * {@link #execute} is called.
+     */
+    default OptionSpec options() {
+        return OptionSpec.NONE;
+    }
+
+    /**
+     * Lines for the command overview, each {@code "usage\tdescription"}.
+     */
+    String[] summary();
+
+    /**
+     * The text shown by {@code help <command>}.
+     */
+    String[] help();
+
+    int execute(CommandContext context, OptionSpec.Arguments arguments) throws IOException;
+}
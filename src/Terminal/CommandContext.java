@@ -0,0 +1,52 @@
+package Terminal;
+
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * What a single command invocation works with: the session, its input and the streams for
+ * its output and error messages.
+ */
+final class CommandContext {
+    final Session session;
+    /** The output of the previous stage of a pipeline, or {@code null} if there is none. */
+    final ReadableByteChannel in;
+    final TerminalOutput out;
+    final TerminalOutput err;
+    /** Bytes the command read and wrote; reads from {@link #in} are counted already. */
+    final IoCounter io;
+
+    CommandContext(Session session, TerminalOutput out, TerminalOutput err) {
+        this(session, null, out, err, new IoCounter());
+    }
+
+    CommandContext(Session session, ReadableByteChannel in, TerminalOutput out, TerminalOutput err, IoCounter io) {
+        this.session = session;
+        this.in = in == null ? null : io.count(in);
+        this.out = out;
+        this.err = err;
+        this.io = io;
+    }
+
+    /**
+     * The same command with its output and error output redirected.
+     */
+    CommandContext(CommandContext context, TerminalOutput out, TerminalOutput err) {
+        this.session = context.session;
+        this.in = context.in;
+        this.out = out;
+        this.err = err;
+        this.io = context.io;
+    }
+
+    Path directory() {
+        return session.directory();
+    }
+
+    /**
+     * @see Session#resolve(String)
+     */
+    Path resolve(String path) {
+        return session.resolve(path);
+    }
+}
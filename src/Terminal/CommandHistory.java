@@ -0,0 +1,418 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The command history: the last {@link #capacity()} command lines in a ring buffer, numbered
+ * from 1 like in bash. Once {@link #open(Path) opened}, every new line is also appended to a
+ * history file, and the last lines of that file are loaded at startup: the file is mapped and
+ * scanned backwards for just enough line ends, so a large file is never read as a whole. When
+ * more than {@value #COMPACT_THRESHOLD} bytes of old lines have piled up in front of them, the
+ * file is rewritten with only the loaded lines.
+ * <p>
+ * A trigram index over the entries in the buffer makes substring search ({@code !?text},
+ * {@code history -s}) independent of the history size: only entries containing the rarest
+ * trigram of the search text are compared. The index is updated as lines come and go.
+ */
+final class CommandHistory {
+    static final int DEFAULT_CAPACITY = 1000;
+    static final String FILE_NAME = ".terminaljava_history";
+    private static final long COMPACT_THRESHOLD = 1024 * 1024;
+
+    private final String[] entries;
+    /** Number of the newest entry; entries are numbered from 1. */
+    private long last;
+    private final Map<Long, Postings> index = new HashMap<>();
+    private FileChannel file;
+
+    /**
+     * Entry numbers of the lines containing one trigram, oldest first. Lines leave the buffer
+     * oldest first, so removed numbers are always at the front.
+     */
+    private static final class Postings {
+        long[] numbers = new long[4];
+        int head;
+        int tail;
+
+        void add(long number) {
+            if (tail == numbers.length) {
+                if (head > numbers.length / 2) {
+                    // Vorne freigewordenen Platz wiederverwenden statt zu wachsen
+                    System.arraycopy(numbers, head, numbers, 0, tail - head);
+                } else {
+                    numbers = Arrays.copyOf(numbers, numbers.length * 2);
+                    System.arraycopy(numbers, head, numbers, 0, tail - head);
+                }
+                tail -= head;
+                head = 0;
+            }
+            numbers[tail++] = number;
+        }
+
+        int size() {
+            return tail - head;
+        }
+    }
+
+    CommandHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    CommandHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("History capacity must be positive: " + capacity);
+        }
+        entries = new String[capacity];
+    }
+
+    int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * Number of the oldest entry still in the buffer; greater than {@link #last()} if empty.
+     */
+    long first() {
+        return Math.max(1, last - entries.length + 1);
+    }
+
+    long last() {
+        return last;
+    }
+
+    int size() {
+        return (int) (last - first() + 1);
+    }
+
+    /**
+     * The entry with the given number, or {@code null} if it is not (or no longer) in the buffer.
+     */
+    String get(long number) {
+        if (number < first() || number > last) {
+            return null;
+        }
+        return entries[slot(number)];
+    }
+
+    /**
+     * Loads the last lines of {@code path} and appends every line added from now on to it.
+     * A missing file is created.
+     */
+    void open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long tailStart = load(channel);
+            if (tailStart > COMPACT_THRESHOLD) {
+                compact(path);
+            }
+        } catch (NoSuchFileException e) {
+            // Erster Start: die Datei entsteht beim Öffnen zum Anhängen
+        }
+        file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Maps the file, searches backwards for the start of the last lines that fit in the
+     * buffer and adds only those.
+     *
+     * @return the offset of the first loaded line, i.e. the number of bytes skipped
+     */
+    private long load(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return 0;
+        }
+        // Höchstens die letzten 2 GB abbilden; mehr Verlauf passt ohnehin nicht in den Puffer
+        long offset = Math.max(0, size - Integer.MAX_VALUE);
+        MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, offset, size - offset);
+        int end = (int) (size - offset);
+        // Der Zeilenumbruch am Ende beendet die letzte Zeile und beginnt keine neue
+        if (map.get(end - 1) == '\n') {
+            end--;
+        }
+        return offset + load(map, end);
+    }
+
+    private long load(MappedByteBuffer map, int end) {
+        int start = end;
+        int lines = 0;
+        while (start > 0 && lines < entries.length) {
+            start--;
+            if (map.get(start) == '\n') {
+                lines++;
+                if (lines == entries.length) {
+                    start++;
+                    break;
+                }
+            }
+        }
+
+        byte[] tail = new byte[end - start];
+        map.get(start, tail);
+        int from = 0;
+        for (int i = 0; i <= tail.length; i++) {
+            if (i == tail.length || tail[i] == '\n') {
+                if (i > from) {
+                    store(new String(tail, from, i - from, StandardCharsets.UTF_8));
+                }
+                from = i + 1;
+            }
+        }
+        return start;
+    }
+
+    /**
+     * Replaces the history file by one holding only the loaded lines. Other sessions
+     * appending at the same moment may lose a line, as with bash.
+     */
+    private void compact(Path path) {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                StringBuilder text = new StringBuilder();
+                for (long number = first(); number <= last; number++) {
+                    text.append(get(number)).append('\n');
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Nicht schlimm: die Datei bleibt groß, das Laden liest trotzdem nur das Ende
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Adds a command line. Blank lines and repetitions of the previous line are not recorded.
+     * Lines are written to the history file right away, so they survive a crash.
+     */
+    void add(String line) {
+        if (line.isBlank() || line.equals(get(last))) {
+            return;
+        }
+        store(line);
+        if (file != null) {
+            ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+            try {
+                while (buffer.hasRemaining()) {
+                    file.write(buffer);
+                }
+            } catch (IOException e) {
+                // Weiter nur im Speicher, statt bei jeder Zeile einen Fehler zu melden
+                close();
+            }
+        }
+    }
+
+    private void store(String line) {
+        if (last - first() + 1 == entries.length) {
+            long oldest = first();
+            unindex(entries[slot(oldest)], oldest);
+        }
+        last++;
+        entries[slot(last)] = line;
+        for (long trigram : trigrams(line)) {
+            index.computeIfAbsent(trigram, key -> new Postings()).add(last);
+        }
+    }
+
+    private void unindex(String line, long number) {
+        for (long trigram : trigrams(line)) {
+            Postings postings = index.get(trigram);
+            if (postings != null && postings.size() > 0 && postings.numbers[postings.head] == number) {
+                postings.head++;
+                if (postings.size() == 0) {
+                    index.remove(trigram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all entries and starts numbering from 1 again. The history file is left
+     * alone, as {@code history -c} does in bash.
+     */
+    void clear() {
+        Arrays.fill(entries, null);
+        index.clear();
+        last = 0;
+    }
+
+    void close() {
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException ignored) {
+            }
+            file = null;
+        }
+    }
+
+    /**
+     * Finds the newest entry before {@code before} that contains {@code text}.
+     *
+     * @return its number, or 0 if there is none
+     */
+    long search(String text, long before) {
+        long oldest = first();
+        long newest = Math.min(before - 1, last);
+        if (text.length() < 3) {
+            for (long number = newest; number >= oldest; number--) {
+                if (entries[slot(number)].contains(text)) {
+                    return number;
+                }
+            }
+            return 0;
+        }
+
+        // Die seltenste Trigramm-Liste durchsuchen; jeder Treffer muss sie enthalten
+        Postings rarest = null;
+        for (long trigram : trigrams(text)) {
+            Postings postings = index.get(trigram);
+            if (postings == null) {
+                return 0;
+            }
+            if (rarest == null || postings.size() < rarest.size()) {
+                rarest = postings;
+            }
+        }
+        for (int i = rarest.tail - 1; i >= rarest.head; i--) {
+            long number = rarest.numbers[i];
+            if (number <= newest && number >= oldest && entries[slot(number)].contains(text)) {
+                return number;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Replaces history references in a line typed by the user, as bash does:
+     * {@code !!} is the previous line, {@code !n} entry n, {@code !-n} the n-th previous
+     * line, {@code !?text[?]} the newest line containing text and {@code !text} the newest
+     * line starting with text. Nothing inside single quotes is replaced, and neither is a
+     * {@code !} followed by a blank or {@code =}.
+     *
+     * @return the line with the references replaced, the same instance if there were none
+     * @throws IllegalArgumentException if a reference matches no entry
+     */
+    String expand(String line) {
+        if (line.indexOf('!') < 0) {
+            return line;
+        }
+        StringBuilder result = new StringBuilder(line.length() + 32);
+        boolean quoted = false;
+        boolean changed = false;
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c != '!' || quoted || i + 1 == line.length()) {
+                result.append(c);
+                i++;
+                continue;
+            }
+
+            char next = line.charAt(i + 1);
+            int end;
+            long number;
+            if (next == '!') {
+                end = i + 2;
+                number = last;
+            } else if (Character.isDigit(next) || (next == '-' && i + 2 < line.length() && Character.isDigit(line.charAt(i + 2)))) {
+                end = i + 2;
+                while (end < line.length() && Character.isDigit(line.charAt(end))) {
+                    end++;
+                }
+                long value = parseNumber(line.substring(next == '-' ? i + 2 : i + 1, end));
+                number = next == '-' ? last - value + 1 : value;
+            } else if (next == '?') {
+                int close = line.indexOf('?', i + 2);
+                end = close < 0 ? line.length() : close + 1;
+                String text = line.substring(i + 2, close < 0 ? line.length() : close);
+                number = text.isEmpty() ? 0 : search(text, last + 1);
+            } else if (!Character.isWhitespace(next) && next != '=' && next != '"') {
+                end = i + 1;
+                while (end < line.length() && !Character.isWhitespace(line.charAt(end))) {
+                    end++;
+                }
+                number = searchPrefix(line.substring(i + 1, end));
+            } else {
+                result.append(c);
+                i++;
+                continue;
+            }
+
+            String entry = get(number);
+            if (entry == null) {
+                throw new IllegalArgumentException(line.substring(i, end) + ": event not found");
+            }
+            result.append(entry);
+            changed = true;
+            i = end;
+        }
+        return changed ? result.toString() : line;
+    }
+
+    private long searchPrefix(String prefix) {
+        for (long number = last; number >= first(); number--) {
+            if (entries[slot(number)].startsWith(prefix)) {
+                return number;
+            }
+        }
+        return 0;
+    }
+
+    private static long parseNumber(String digits) {
+        try {
+            return Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private int slot(long number) {
+        return (int) ((number - 1) % entries.length);
+    }
+
+    /**
+     * The distinct trigrams of {@code text}, three chars packed into a long each.
+     */
+    private static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+        long[] trigrams = new long[text.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        // Doppelte entfernen, damit jede Zeile höchstens einmal pro Liste steht
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return distinct == trigrams.length ? trigrams : Arrays.copyOf(trigrams, distinct);
+    }
+}
@@ -0,0 +1,176 @@
+package Terminal;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Splits a command line into words like a POSIX shell: runs of blanks separate words,
+ * single quotes keep everything literally, double quotes keep blanks and allow
+ * {@code \"} and {@code \\}, and outside of quotes a backslash escapes the next character.
+ * On Windows the backslash is the path separator, so there it is only special inside
+ * double quotes. Unquoted {@code |} and the redirections {@code >}, {@code >>}, {@code 2>},
+ * {@code 2>>} and {@code 2>&1} are tokens of their own. The character buffer and the token
+ * list are reused from line to line; the only allocation per word is the resulting string.
+ */
+final class CommandLexer {
+    // Operatoren mit == vergleichen: ein "|" in Anführungszeichen ist gleich, aber nie dieselbe Instanz
+    /** The token for an unquoted {@code |}. */
+    static final String PIPE = new String("|");
+    /** Standard output to a file, {@code >}. */
+    static final String REDIRECT_OUT = new String(">");
+    /** Standard output appended to a file, {@code >>}. */
+    static final String APPEND_OUT = new String(">>");
+    /** Error output to a file, {@code 2>}. */
+    static final String REDIRECT_ERR = new String("2>");
+    /** Error output appended to a file, {@code 2>>}. */
+    static final String APPEND_ERR = new String("2>>");
+    /** Error output to wherever standard output goes at that point, {@code 2>&1}. */
+    static final String ERR_TO_OUT = new String("2>&1");
+
+    private final boolean backslashEscapes = File.separatorChar != '\\';
+    private final StringBuilder word = new StringBuilder(64);
+
+    /**
+     * Clears {@code tokens} and fills it with the words of {@code line}.
+     *
+     * @throws IllegalArgumentException if a quote is not closed
+     */
+    void tokenize(CharSequence line, List<String> tokens) {
+        tokens.clear();
+        word.setLength(0);
+        // Auch "" ergibt ein (leeres) Wort, daher nicht nur auf die Länge schauen
+        boolean inWord = false;
+        int length = line.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            switch (c) {
+                case ' ':
+                case '\t':
+                    if (inWord) {
+                        tokens.add(word.toString());
+                        word.setLength(0);
+                        inWord = false;
+                    }
+                    break;
+                case '\'': {
+                    int end = indexOf(line, '\'', i + 1);
+                    word.append(line, i + 1, end);
+                    i = end;
+                    inWord = true;
+                    break;
+                }
+                case '"':
+                    i = readDoubleQuoted(line, i + 1);
+                    inWord = true;
+                    break;
+                case '|':
+                    if (inWord) {
+                        tokens.add(word.toString());
+                        word.setLength(0);
+                        inWord = false;
+                    }
+                    tokens.add(PIPE);
+                    break;
+                case '>':
+                    if (inWord) {
+                        tokens.add(word.toString());
+                        word.setLength(0);
+                        inWord = false;
+                    }
+                    if (i + 1 < length && line.charAt(i + 1) == '>') {
+                        tokens.add(APPEND_OUT);
+                        i++;
+                    } else {
+                        tokens.add(REDIRECT_OUT);
+                    }
+                    break;
+                case '2':
+                    // Nur am Wortanfang ist 2> eine Umleitung, sonst gehört die 2 zum Wort
+                    if (!inWord && startsWith(line, i + 1, ">")) {
+                        if (startsWith(line, i + 1, ">&1")) {
+                            tokens.add(ERR_TO_OUT);
+                            i += 3;
+                        } else if (startsWith(line, i + 1, ">>")) {
+                            tokens.add(APPEND_ERR);
+                            i += 2;
+                        } else {
+                            tokens.add(REDIRECT_ERR);
+                            i++;
+                        }
+                        break;
+                    }
+                    word.append(c);
+                    inWord = true;
+                    break;
+                case '\\':
+                    if (backslashEscapes && i + 1 < length) {
+                        word.append(line.charAt(++i));
+                    } else {
+                        word.append(c);
+                    }
+                    inWord = true;
+                    break;
+                default:
+                    word.append(c);
+                    inWord = true;
+                    break;
+            }
+        }
+        if (inWord) {
+            tokens.add(word.toString());
+        }
+    }
+
+    /**
+     * Appends the double-quoted text starting at {@code start} and returns the index of
+     * the closing quote.
+     */
+    private int readDoubleQuoted(CharSequence line, int start) {
+        for (int i = start; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                return i;
+            }
+            if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(i + 1);
+                if (next == '"' || next == '\\') {
+                    word.append(next);
+                    i++;
+                    continue;
+                }
+            }
+            word.append(c);
+        }
+        throw new IllegalArgumentException("Unterminated quote: \"");
+    }
+
+    /**
+     * Whether {@code token} is one of the redirection operators.
+     */
+    static boolean isRedirection(String token) {
+        return token == REDIRECT_OUT || token == APPEND_OUT || token == REDIRECT_ERR
+                || token == APPEND_ERR || token == ERR_TO_OUT;
+    }
+
+    private static boolean startsWith(CharSequence line, int from, String prefix) {
+        if (line.length() - from < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (line.charAt(from + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence line, char c, int from) {
+        for (int i = from; i < line.length(); i++) {
+            if (line.charAt(i) == c) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated quote: " + c);
+    }
+}
@@ -0,0 +1,300 @@
+package Terminal;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What each command costs: how often it ran and failed, a histogram of its wall times,
+ * and the CPU time, allocated bytes and bytes read and written it used in total. Every
+ * command the {@link CommandRegistry} runs is recorded; {@code stats} shows the figures.
+ * <p>
+ * Recording takes no locks: the entry of a command is found in a {@link ConcurrentHashMap},
+ * totals go into {@link LongAdder}s and the histogram is an {@link AtomicLongArray} of
+ * log-linear buckets, {@value #SUB_BUCKETS} per power of two, so percentiles are accurate
+ * to about 12%. CPU time and allocations are those of the thread that ran the command;
+ * work a command hands to the {@link IoPool} or other pools is not included. Bytes read and
+ * written are counted per command where the data passes (see {@link IoCounter}).
+ * {@code time} is not recorded itself, only the command it runs.
+ */
+final class CommandMetrics {
+    private static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private static final CommandMetrics INSTANCE = new CommandMetrics();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final com.sun.management.ThreadMXBean allocations;
+    private final com.sun.management.OperatingSystemMXBean system;
+    private final boolean cpuTime;
+
+    /**
+     * The figures of one command.
+     */
+    static final class Entry {
+        final String name;
+        final LongAdder calls = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder wallNanos = new LongAdder();
+        final LongAdder cpuNanos = new LongAdder();
+        final LongAdder allocatedBytes = new LongAdder();
+        final LongAdder bytesRead = new LongAdder();
+        final LongAdder bytesWritten = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        private Entry(String name) {
+            this.name = name;
+        }
+
+        /**
+         * The wall time below which the given fraction of the calls finished, as the upper
+         * end of its histogram bucket (but never more than the maximum).
+         */
+        long percentile(double fraction) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram.get(i);
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(fraction * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), maxNanos.get());
+                }
+            }
+            return maxNanos.get();
+        }
+    }
+
+    /**
+     * Counter readings at the start of a command; {@link #stop} turns them into what
+     * the command used.
+     */
+    static final class Measurement {
+        private final boolean process;
+        private final IoCounter io;
+        // Ausgaben, die der Befehl selbst beschreibt; bei der ganzen Befehlszeile zählen das die Stufen
+        private final TerminalOutput out;
+        private final TerminalOutput err;
+        private long outWritten;
+        private long errWritten;
+        long wallNanos;
+        long cpuNanos;
+        long allocatedBytes;
+        long bytesRead;
+        long bytesWritten;
+
+        private Measurement(boolean process, CommandContext context) {
+            this.process = process;
+            this.io = context.io;
+            this.out = process ? null : context.out;
+            this.err = process || context.err == context.out ? null : context.err;
+        }
+    }
+
+    private CommandMetrics() {
+        com.sun.management.ThreadMXBean allocationBean = null;
+        if (threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+            allocationBean = (com.sun.management.ThreadMXBean) threads;
+            allocationBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        allocations = allocationBean;
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        system = os instanceof com.sun.management.OperatingSystemMXBean ? (com.sun.management.OperatingSystemMXBean) os : null;
+        cpuTime = threads.isCurrentThreadCpuTimeSupported();
+        if (cpuTime && !threads.isThreadCpuTimeEnabled()) {
+            threads.setThreadCpuTimeEnabled(true);
+        }
+    }
+
+    static CommandMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts measuring the current thread, for one command run with {@code context}.
+     */
+    Measurement start(CommandContext context) {
+        return begin(new Measurement(false, context));
+    }
+
+    /**
+     * Starts measuring the whole process, for {@code time} over a pipeline whose stages
+     * run on several threads; their I/O adds up in the counter of {@code context}.
+     */
+    Measurement startProcess(CommandContext context) {
+        return begin(new Measurement(true, context));
+    }
+
+    private Measurement begin(Measurement measurement) {
+        measurement.cpuNanos = cpuNanos(measurement.process);
+        measurement.allocatedBytes = allocatedBytes(measurement.process);
+        measurement.bytesRead = measurement.io.read();
+        measurement.bytesWritten = measurement.io.written();
+        if (measurement.out != null) {
+            measurement.outWritten = measurement.out.written();
+        }
+        if (measurement.err != null) {
+            measurement.errWritten = measurement.err.written();
+        }
+        // Zuletzt, damit das Lesen der Zähler nicht mitzählt
+        measurement.wallNanos = System.nanoTime();
+        return measurement;
+    }
+
+    /**
+     * Replaces the start readings of {@code measurement} by the differences to now. What the
+     * command wrote to its output and error output is added to its {@link IoCounter}.
+     */
+    void stop(Measurement measurement) {
+        measurement.wallNanos = System.nanoTime() - measurement.wallNanos;
+        measurement.cpuNanos = cpuNanos(measurement.process) - measurement.cpuNanos;
+        measurement.allocatedBytes = allocatedBytes(measurement.process) - measurement.allocatedBytes;
+        if (measurement.out != null) {
+            measurement.io.addWritten(measurement.out.written() - measurement.outWritten);
+        }
+        if (measurement.err != null) {
+            measurement.io.addWritten(measurement.err.written() - measurement.errWritten);
+        }
+        measurement.bytesRead = measurement.io.read() - measurement.bytesRead;
+        measurement.bytesWritten = measurement.io.written() - measurement.bytesWritten;
+    }
+
+    /**
+     * Stops {@code measurement} and adds it to the figures of {@code command}.
+     */
+    void record(String command, Measurement measurement, int status) {
+        stop(measurement);
+        Entry entry = entries.get(command);
+        if (entry == null) {
+            entry = entries.computeIfAbsent(command, Entry::new);
+        }
+        entry.calls.increment();
+        if (status != Command.SUCCESS) {
+            entry.failures.increment();
+        }
+        entry.wallNanos.add(measurement.wallNanos);
+        entry.cpuNanos.add(measurement.cpuNanos);
+        entry.allocatedBytes.add(measurement.allocatedBytes);
+        entry.bytesRead.add(measurement.bytesRead);
+        entry.bytesWritten.add(measurement.bytesWritten);
+        entry.maxNanos.accumulate(measurement.wallNanos);
+        entry.histogram.incrementAndGet(bucket(measurement.wallNanos));
+    }
+
+    /**
+     * The entries of all commands that have run, busiest (by total wall time) first.
+     */
+    List<Entry> entries() {
+        List<Entry> result = new ArrayList<>(entries.values());
+        result.sort((a, b) -> Long.compare(b.wallNanos.sum(), a.wallNanos.sum()));
+        return result;
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    boolean measuresCpu() {
+        return cpuTime;
+    }
+
+    boolean measuresAllocations() {
+        return allocations != null;
+    }
+
+    private long cpuNanos(boolean process) {
+        if (process) {
+            return system != null ? system.getProcessCpuTime() : 0;
+        }
+        return cpuTime ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    private long allocatedBytes(boolean process) {
+        if (allocations == null) {
+            return 0;
+        }
+        if (!process) {
+            return allocations.getCurrentThreadAllocatedBytes();
+        }
+        long total = 0;
+        for (long bytes : allocations.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Values below {@value #SUB_BUCKETS} have a bucket each; above, every power of two
+     * is split into {@value #SUB_BUCKETS} buckets of equal width.
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(value, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lower + width - 1;
+    }
+
+    /**
+     * Prints what a measured command used, for {@code time}.
+     */
+    void report(TerminalOutput out, Measurement measurement) {
+        out.println("real    " + formatNanos(measurement.wallNanos));
+        if (measurement.process ? system != null : cpuTime) {
+            out.println("cpu     " + formatNanos(measurement.cpuNanos));
+        }
+        if (allocations != null) {
+            out.println("alloc   " + ListCommand.getFileSize(measurement.allocatedBytes));
+        }
+        out.println("read    " + ListCommand.getFileSize(measurement.bytesRead));
+        out.println("written " + ListCommand.getFileSize(measurement.bytesWritten));
+    }
+
+    /**
+     * A duration in the largest unit that keeps it readable: ns, µs, ms or s.
+     */
+    static String formatNanos(long nanos) {
+        if (nanos < TimeUnit.MICROSECONDS.toNanos(1)) {
+            return nanos + " ns";
+        }
+        if (nanos < TimeUnit.MILLISECONDS.toNanos(1)) {
+            return String.format("%.1f µs", nanos / 1e3);
+        }
+        if (nanos < TimeUnit.SECONDS.toNanos(1)) {
+            return String.format("%.1f ms", nanos / 1e6);
+        }
+        return String.format("%.3f s", nanos / 1e9);
+    }
+}
@@ -0,0 +1,128 @@
+package Terminal;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Maps command names to {@link Command}s. The built-in commands are registered in the order
+ * the overview of {@code help} lists them; commands found through {@link ServiceLoader}
+ * follow and may replace a built-in of the same name.
+ */
+final class CommandRegistry {
+    static final int NOT_FOUND = 127;
+
+    private final Map<String, Command> commands = new LinkedHashMap<>();
+
+    static CommandRegistry withBuiltins() {
+        CommandRegistry registry = new CommandRegistry();
+        registry.register(new HelpCommand());
+        registry.register(new ClearCommand());
+        registry.register(new ListCommand());
+        registry.register(new ChangeDirectoryCommand());
+        registry.register(new MakeDirectoryCommand());
+        registry.register(new MakeDirectoriesCommand());
+        registry.register(new TouchCommand());
+        registry.register(new RemoveDirectoryCommand());
+        registry.register(new RemoveCommand());
+        registry.register(new CopyCommand());
+        registry.register(new MoveCommand());
+        registry.register(new ZipCommand());
+        registry.register(new UnzipCommand());
+        registry.register(new CatCommand());
+        registry.register(new PwdCommand());
+        registry.register(new TreeCommand());
+        registry.register(new IfconfigCommand());
+        registry.register(new ShutdownCommand());
+        registry.register(new EchoCommand());
+        registry.register(new PsCommand());
+        registry.register(new KillCommand());
+        registry.register(new PkillCommand());
+        registry.register(new TopCommand());
+        registry.register(new GrepCommand());
+        registry.register(new WcCommand());
+        registry.register(new HeadCommand());
+        registry.register(new CacheCommand());
+        registry.register(new PromptCommand());
+        registry.register(new HistoryCommand());
+        registry.register(new TimeCommand());
+        registry.register(new StatsCommand());
+
+        for (Command command : ServiceLoader.load(Command.class)) {
+            registry.register(command);
+        }
+        return registry;
+    }
+
+    void register(Command command) {
+        commands.put(command.name(), command);
+    }
+
+    Command find(String name) {
+        return commands.get(name);
+    }
+
+    Collection<Command> commands() {
+        return Collections.unmodifiableCollection(commands.values());
+    }
+
+    /**
+     * Runs the command named by the first word with the remaining words as arguments
+     * and records what it used in the {@link CommandMetrics}. {@code time} itself is not
+     * recorded, only the command it runs.
+     *
+     * @return the exit status of the command, {@link Command#USAGE} if the options
+     * could not be parsed, or {@link #NOT_FOUND}
+     */
+    int execute(CommandContext context, List<String> words) throws IOException {
+        return execute(context, words, null);
+    }
+
+    /**
+     * Like {@link #execute(CommandContext, List)}, but records the command with
+     * {@code measurement}, which the caller ({@code time}) started and reports afterwards.
+     * The measurement is stopped when this returns.
+     */
+    int execute(CommandContext context, List<String> words, CommandMetrics.Measurement measurement) throws IOException {
+        CommandMetrics metrics = CommandMetrics.get();
+        Command command = commands.get(words.get(0));
+        if (command == null) {
+            if (measurement != null) {
+                metrics.stop(measurement);
+            }
+            context.err.println("Command not found: " + words.get(0));
+            return NOT_FOUND;
+        }
+        if (command.name().equals(TimeCommand.NAME)) {
+            // time misst selbst und zeichnet nur den Befehl auf, den es ausführt
+            return run(context, command, words);
+        }
+
+        if (measurement == null) {
+            measurement = metrics.start(context);
+        }
+        int status = Command.FAILURE;
+        try {
+            status = run(context, command, words);
+            return status;
+        } finally {
+            // Auch Abbrüche durch Ausnahmen zählen, als Fehlschlag
+            metrics.record(command.name(), measurement, status);
+        }
+    }
+
+    private static int run(CommandContext context, Command command, List<String> words) throws IOException {
+        OptionSpec.Arguments arguments;
+        try {
+            arguments = command.options().parse(command.name(), words, 1);
+        } catch (IllegalArgumentException e) {
+            context.err.println(e.getMessage());
+            return Command.USAGE;
+        }
+        return command.execute(context, arguments);
+    }
+}
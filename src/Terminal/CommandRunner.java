@@ -0,0 +1,122 @@
+package Terminal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs command lines: splits them with the {@link CommandLexer}, runs the {@link Pipeline}
+ * and turns what goes wrong into an exit status. The interactive loop feeds it one line at
+ * a time; batch mode feeds it whole scripts, without prompt or history.
+ */
+final class CommandRunner {
+    private final CommandContext context;
+    private final CommandLexer lexer = new CommandLexer();
+    private final List<String> words = new ArrayList<>();
+    private boolean exitRequested;
+
+    CommandRunner(CommandContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Runs one command line and returns its exit status. A line starting with {@code time}
+     * runs the rest and reports what the whole pipeline used on the error output.
+     */
+    int execute(String line) {
+        try {
+            lexer.tokenize(line, words);
+            if (words.size() > 1 && words.get(0).equals(TimeCommand.NAME)) {
+                return timePipeline();
+            }
+            return words.isEmpty() ? Command.SUCCESS : Pipeline.execute(context.session.registry, context, words);
+        } catch (IllegalArgumentException e) {
+            // Fehler des Lexers, z.B. ein offenes Anführungszeichen
+            context.err.println(e.getMessage());
+            return Command.USAGE;
+        } catch (IOException | UncheckedIOException e) {
+            // Flush-Punkt bei Fehlern, damit die Ausgabe vor der Meldung steht
+            context.out.flush();
+            context.err.println("Error: " + e.getMessage());
+            return Command.FAILURE;
+        } catch (RuntimeException e) {
+            // Fehler eines Befehls beendet nicht die Sitzung, wie in Pipeline.runStage
+            context.out.flush();
+            context.err.println("Error: " + e);
+            return Command.FAILURE;
+        }
+    }
+
+    private int timePipeline() throws IOException {
+        // "time time befehl" misst nur einmal
+        while (words.size() > 1 && words.get(0).equals(TimeCommand.NAME)) {
+            words.remove(0);
+        }
+        CommandMetrics metrics = CommandMetrics.get();
+        // Prozessweit messen: die Stufen einer Pipeline laufen in eigenen Threads
+        CommandMetrics.Measurement measurement = metrics.startProcess(context);
+        try {
+            return Pipeline.execute(context.session.registry, context, words);
+        } finally {
+            metrics.stop(measurement);
+            // Flush-Punkt: die Ausgabe des Befehls steht vor dem Bericht
+            context.out.flush();
+            metrics.report(context.err, measurement);
+        }
+    }
+
+    /**
+     * Runs every line of {@code script} until its end or an {@code exit [status]} line.
+     * Blank lines and lines starting with {@code #} are skipped.
+     *
+     * @param stopOnError stop at the first command that does not return {@link Command#SUCCESS}
+     * @return the exit status of the last command that ran, or the one given to {@code exit}
+     */
+    int runScript(BufferedReader script, boolean stopOnError) throws IOException {
+        int status = Command.SUCCESS;
+        String line;
+        while ((line = script.readLine()) != null) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            if (trimmed.equals("exit") || trimmed.startsWith("exit ")) {
+                exitRequested = true;
+                return exitStatus(trimmed.substring(4).trim(), status);
+            }
+            long errorBytes = context.err.written();
+            status = execute(line);
+            // Fehlermeldungen sofort, aber nie vor der Ausgabe früherer Zeilen; sonst wird die Ausgabe
+            // nur am Terminal je Zeile geschrieben, in Dateien und Pipes erst, wenn der Puffer voll ist
+            if (context.out.isConsole() || context.err.written() != errorBytes) {
+                context.out.flush();
+            }
+            context.err.flush();
+            if (status != Command.SUCCESS && stopOnError) {
+                break;
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Whether a script ended with {@code exit}, so nothing after it should run.
+     */
+    boolean exitRequested() {
+        return exitRequested;
+    }
+
+    private int exitStatus(String argument, int lastStatus) {
+        if (argument.isEmpty()) {
+            return lastStatus;
+        }
+        try {
+            return Integer.parseInt(argument) & 0xff;
+        } catch (NumberFormatException e) {
+            context.err.println("exit: numeric argument required: " + argument);
+            return Command.USAGE;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code cp}: copies a file or a directory tree with the {@link CopyEngine}.
+ */
+final class CopyCommand implements Command {
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final OptionSpec options = new OptionSpec().flags("rpv").longFlags("resume", "verify");
+
+    @Override
+    public String name() {
+        return "cp";
+    }
+
+    @Override
+    public OptionSpec options() {
+        return options;
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{
+                "cp [source] [dest]\tCopy a file or directory",
+                "cp -r [source] [dest]\tCopy directories recursively",
+                "cp --resume [file] [dest]\tCopy a large file so that an interrupted copy can be continued"
+        };
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: cp [-r] [-p] [-v] [--resume] [--verify] [source] [dest]",
+                "Copy a file or directory. Files are copied in parallel and a summary is printed at the end.",
+                "If dest is an existing directory, a file is copied into it and a directory is merged into it.",
+                "Existing files are not overwritten.",
+                "Options:",
+                "  -r - Copy directories recursively",
+                "  -p - Preserve modification times and permissions",
+                "  -v - Print every copied file and created directory",
+                "  --resume - Copy a single file in " + ResumableCopy.CHUNK_SIZE / (1024 * 1024) + " MB chunks with a journal ("
+                        + "dest" + ResumableCopy.JOURNAL_SUFFIX + "); after an interruption the same",
+                "             command continues where it stopped. Shows progress, throughput and ETA.",
+                "  --verify - Like --resume, and re-read the copy at the end to check it against the",
+                "             checksums taken while reading the source"
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        if (arguments.operands.size() < 2) {
+            context.err.println("Missing argument(s) for cp command.");
+            return USAGE;
+        }
+        String source = arguments.operand(0);
+        Path sourcePath = context.resolve(source);
+        Path targetPath = context.resolve(arguments.operand(1));
+
+        if (!Files.exists(sourcePath, LinkOption.NOFOLLOW_LINKS)) {
+            context.err.println("Source file or directory not found: " + source);
+            return FAILURE;
+        }
+        if (!Files.isDirectory(sourcePath) && Files.isDirectory(targetPath)) {
+            // Datei in ein vorhandenes Verzeichnis kopieren
+            targetPath = targetPath.resolve(sourcePath.getFileName());
+        }
+
+        if (arguments.has("resume") || arguments.has("verify")) {
+            if (Files.isDirectory(sourcePath)) {
+                context.err.println("--resume and --verify only work on single files: " + source);
+                return USAGE;
+            }
+            return copyResumable(context, sourcePath, targetPath, arguments);
+        }
+
+        CopyEngine.Options copyOptions = new CopyEngine.Options();
+        copyOptions.preserve = arguments.has('p');
+        if (arguments.has('v')) {
+            copyOptions.verbose = context.out::println;
+        }
+
+        CopyEngine.Result result;
+        try {
+            result = CopyEngine.copy(sourcePath, targetPath, copyOptions);
+        } catch (IOException e) {
+            context.err.println("Failed to copy " + source + ": " + e.getMessage());
+            return FAILURE;
+        }
+        context.io.addRead(result.bytes);
+        context.io.addWritten(result.bytes);
+
+        context.out.printf("Copied %d file(s), %d director%s, %s in %.2f s (%s)%n",
+                result.files, result.directories, result.directories == 1 ? "y" : "ies",
+                ListCommand.getFileSize(result.bytes), ListCommand.getSeconds(result.nanos),
+                ListCommand.getThroughput(result.bytes, result.nanos));
+        return ListCommand.printErrors(context, result.errors);
+    }
+
+    private static int copyResumable(CommandContext context, Path source, Path target, OptionSpec.Arguments arguments) {
+        TerminalOutput out = context.out;
+        // Die \r-Fortschrittszeile nur auf der Konsole, umgeleitet bleibt nur die Zusammenfassung
+        boolean live = out.isConsole();
+        long start = System.nanoTime();
+        long[] lastUpdate = {0};
+        long[] resumedAt = {-1};
+
+        ResumableCopy.Progress progress = (done, total) -> {
+            if (!live) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (resumedAt[0] < 0) {
+                resumedAt[0] = done;
+            }
+            if (now - lastUpdate[0] < PROGRESS_INTERVAL_NANOS && done < total) {
+                return;
+            }
+            lastUpdate[0] = now;
+            // Durchsatz nur über die in diesem Lauf kopierten Bytes
+            double rate = (done - resumedAt[0]) / ListCommand.getSeconds(now - start);
+            out.printf("\r%s / %s  %3d%%  %s/s  ETA %s   ",
+                    ListCommand.getFileSize(done), ListCommand.getFileSize(total),
+                    total == 0 ? 100 : (int) (100 * done / total),
+                    ListCommand.getFileSize((long) rate),
+                    rate <= 0 ? "--:--" : formatEta((long) ((total - done) / rate)));
+            out.flush();
+        };
+
+        ResumableCopy.Result result;
+        try {
+            result = ResumableCopy.copy(source, target, arguments.has("verify"), arguments.has('p'), progress);
+        } catch (IOException e) {
+            if (live) {
+                out.println();
+            }
+            context.err.println("Failed to copy " + source + ": " + e.getMessage());
+            if (Files.exists(ResumableCopy.journalOf(target))) {
+                context.err.println("Run the same command with --resume to continue.");
+            }
+            return FAILURE;
+        }
+
+        // Die Prüfung liest Quelle und Ziel noch einmal ganz
+        context.io.addRead(result.bytes - result.resumedBytes + (result.verified ? 2 * result.bytes : 0));
+        context.io.addWritten(result.bytes - result.resumedBytes);
+        if (live) {
+            out.println();
+        }
+        out.printf("Copied %s in %.2f s (%s)%s%s%n",
+                ListCommand.getFileSize(result.bytes), ListCommand.getSeconds(result.nanos),
+                ListCommand.getThroughput(result.bytes - result.resumedBytes, result.nanos),
+                result.resumedBytes > 0 ? ", resumed at " + ListCommand.getFileSize(result.resumedBytes) : "",
+                result.verified ? ", verified" : "");
+        return SUCCESS;
+    }
+
+    private static String formatEta(long seconds) {
+        if (seconds >= 3600) {
+            return String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+        }
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+}
@@ -0,0 +1,230 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.CopyOption;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Copies files and directory trees. The source is walked once on the calling thread, which
+ * creates the directories; the files are copied concurrently on the {@link IoPool}, at most
+ * a few per pool thread at a time so a huge tree does not queue up in memory. Large files
+ * go through {@link FileChannel#transferTo}, which lets the kernel copy without passing the
+ * data through Java buffers. Existing target files are not overwritten; like all other
+ * failures they are collected in the {@link Result} and the copy goes on.
+ */
+final class CopyEngine {
+    private static final long TRANSFER_THRESHOLD = 1024 * 1024;
+
+    private CopyEngine() {
+    }
+
+    static final class Options {
+        /** Keep modification times and permissions. */
+        boolean preserve;
+        /** Called on the calling thread, in walk order, for every copied file and created directory. */
+        Consumer<String> verbose;
+    }
+
+    static final class Result {
+        long files;
+        long directories;
+        long bytes;
+        long nanos;
+        final List<String> errors = new ArrayList<>();
+    }
+
+    private static final class FileCopy {
+        final Path source;
+        final Path target;
+        long bytes;
+        String error;
+
+        FileCopy(Path source, Path target) {
+            this.source = source;
+            this.target = target;
+        }
+    }
+
+    /**
+     * Copies {@code source} to {@code target}. A directory is copied with everything below it;
+     * if {@code target} already exists as a directory the contents are merged into it.
+     */
+    static Result copy(Path source, Path target, Options options) throws IOException {
+        Result result = new Result();
+        long start = System.nanoTime();
+
+        BasicFileAttributes sourceAttributes = Files.readAttributes(source, BasicFileAttributes.class);
+        if (sourceAttributes.isDirectory()) {
+            if (target.toAbsolutePath().normalize().startsWith(source.toAbsolutePath().normalize())) {
+                throw new IOException("Cannot copy a directory into itself: " + target);
+            }
+            copyTree(source, target, options, result);
+        } else {
+            FileCopy copy = copyFile(source, target, sourceAttributes, options.preserve);
+            finish(copy, options, result);
+        }
+
+        MetadataCache.get().invalidate(target);
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private static void copyTree(Path source, Path target, Options options, Result result) throws IOException {
+        Deque<ForkJoinTask<FileCopy>> pending = new ArrayDeque<>();
+        // Begrenzt, wie viele Kopien gleichzeitig laufen oder auf die Auswertung warten
+        int maxPending = IoPool.parallelism() * 4;
+        List<Path> sources = new ArrayList<>();
+        List<Path> directories = new ArrayList<>();
+        List<BasicFileAttributes> directoryAttributes = new ArrayList<>();
+
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                Path targetDirectory = target.resolve(source.relativize(dir).toString());
+                try {
+                    Files.createDirectory(targetDirectory);
+                    result.directories++;
+                    if (options.verbose != null) {
+                        options.verbose.accept("Directory created: " + targetDirectory.toAbsolutePath());
+                    }
+                } catch (FileAlreadyExistsException e) {
+                    if (!Files.isDirectory(targetDirectory)) {
+                        result.errors.add("Not a directory: " + targetDirectory);
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                } catch (IOException e) {
+                    result.errors.add("Failed to create directory " + targetDirectory + ": " + e.getMessage());
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                sources.add(dir);
+                directories.add(targetDirectory);
+                directoryAttributes.add(attrs);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                Path targetFile = target.resolve(source.relativize(file).toString());
+                pending.add(IoPool.get().submit(() -> copyFile(file, targetFile, attrs, options.preserve)));
+                while (pending.size() > maxPending) {
+                    finish(pending.poll().join(), options, result);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                result.errors.add("Failed to read " + file + ": " + exc.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        while (!pending.isEmpty()) {
+            finish(pending.poll().join(), options, result);
+        }
+
+        // Verzeichnisse erst zum Schluss, von innen nach außen: jede Kopie hätte ihre Zeit verändert
+        for (int i = directories.size() - 1; i >= 0; i--) {
+            Path directory = directories.get(i);
+            if (options.preserve) {
+                try {
+                    copyAttributes(sources.get(i), directoryAttributes.get(i), directory);
+                } catch (IOException e) {
+                    result.errors.add("Failed to preserve attributes of " + directory + ": " + e.getMessage());
+                }
+            }
+            MetadataCache.get().invalidate(directory);
+        }
+    }
+
+    private static void finish(FileCopy copy, Options options, Result result) {
+        if (copy.error != null) {
+            result.errors.add(copy.error);
+            return;
+        }
+        result.files++;
+        result.bytes += copy.bytes;
+        if (options.verbose != null) {
+            options.verbose.accept("File copied: " + copy.source.toAbsolutePath() + " -> " + copy.target.toAbsolutePath());
+        }
+    }
+
+    private static FileCopy copyFile(Path source, Path target, BasicFileAttributes attributes, boolean preserve) {
+        FileCopy copy = new FileCopy(source, target);
+        try {
+            if (attributes.isRegularFile() && attributes.size() >= TRANSFER_THRESHOLD) {
+                copy.bytes = transfer(source, target);
+                if (preserve) {
+                    copyAttributes(source, attributes, target);
+                }
+            } else {
+                // Kleine Dateien und symbolische Links (als Link) kopiert das JDK selbst
+                List<CopyOption> copyOptions = new ArrayList<>(2);
+                if (attributes.isSymbolicLink()) {
+                    copyOptions.add(LinkOption.NOFOLLOW_LINKS);
+                }
+                if (preserve) {
+                    copyOptions.add(StandardCopyOption.COPY_ATTRIBUTES);
+                }
+                Files.copy(source, target, copyOptions.toArray(new CopyOption[0]));
+                copy.bytes = attributes.isRegularFile() ? attributes.size() : 0;
+            }
+        } catch (FileAlreadyExistsException e) {
+            copy.error = "File already exists: " + target;
+        } catch (IOException e) {
+            copy.error = "Failed to copy " + source + ": " + e.getMessage();
+        }
+        return copy;
+    }
+
+    private static long transfer(Path source, Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                long transferred = in.transferTo(position, size - position, out);
+                if (transferred <= 0) {
+                    // Datei ist während des Kopierens geschrumpft
+                    break;
+                }
+                position += transferred;
+            }
+            return position;
+        }
+    }
+
+    /**
+     * Copies the permissions, where the file system has them, and the times of {@code source}
+     * to {@code target}.
+     */
+    static void copyAttributes(Path source, BasicFileAttributes attributes, Path target) throws IOException {
+        PosixFileAttributeView posixView = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (posixView != null) {
+            PosixFileAttributes posix = attributes instanceof PosixFileAttributes
+                    ? (PosixFileAttributes) attributes
+                    : Files.readAttributes(source, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            posixView.setPermissions(posix.permissions());
+        }
+        Files.getFileAttributeView(target, BasicFileAttributeView.class)
+                .setTimes(attributes.lastModifiedTime(), attributes.lastAccessTime(), null);
+    }
+}
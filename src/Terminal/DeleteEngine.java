@@ -0,0 +1,200 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Deletes directory trees in parallel on the {@link IoPool}. Every directory is handled by its
+ * own task, which forks its subdirectories, deletes its files (split into batches for very
+ * large directories) and finally removes itself once all children are gone. Failures do not
+ * stop the walk: they are collected, and only the directories above a failure stay behind.
+ * Symbolic links are deleted, never followed.
+ */
+final class DeleteEngine {
+    private static final int BATCH_SIZE = 1024;
+
+    private DeleteEngine() {
+    }
+
+    static final class Result {
+        long files;
+        long directories;
+        long bytes;
+        long nanos;
+        final List<String> errors = new ArrayList<>();
+    }
+
+    /**
+     * Counts of one subtree, summed up as the tasks are joined.
+     */
+    private static final class Counts {
+        long files;
+        long directories;
+        long bytes;
+        boolean complete = true;
+
+        void add(Counts other) {
+            files += other.files;
+            directories += other.directories;
+            bytes += other.bytes;
+            complete &= other.complete;
+        }
+    }
+
+    /**
+     * Deletes {@code path}; a directory is deleted with everything below it.
+     */
+    static Result delete(Path path) throws IOException {
+        long start = System.nanoTime();
+        Queue<String> errors = new ConcurrentLinkedQueue<>();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+
+        Counts counts;
+        if (attributes.isDirectory()) {
+            counts = IoPool.get().invoke(new DirectoryTask(path, errors));
+        } else {
+            counts = new Counts();
+            deleteFile(path, attributes, counts, errors);
+        }
+        MetadataCache.get().invalidate(path);
+
+        Result result = new Result();
+        result.files = counts.files;
+        result.directories = counts.directories;
+        result.bytes = counts.bytes;
+        result.errors.addAll(errors);
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private static void deleteFile(Path file, BasicFileAttributes attributes, Counts counts, Queue<String> errors) {
+        try {
+            Files.delete(file);
+            counts.files++;
+            counts.bytes += attributes.isRegularFile() ? attributes.size() : 0;
+        } catch (NoSuchFileException e) {
+            // Schon weg
+        } catch (IOException e) {
+            errors.add("Failed to delete " + file + ": " + describe(e));
+            counts.complete = false;
+        }
+    }
+
+    private static String describe(IOException e) {
+        // Der Pfad steht schon in der Meldung, nur den Grund anhängen
+        if (e instanceof FileSystemException && ((FileSystemException) e).getReason() != null) {
+            return ((FileSystemException) e).getReason();
+        }
+        return e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+    }
+
+    private static final class DirectoryTask extends RecursiveTask<Counts> {
+        private static final long serialVersionUID = 1L;
+
+        private final Path directory;
+        private final Queue<String> errors;
+
+        DirectoryTask(Path directory, Queue<String> errors) {
+            this.directory = directory;
+            this.errors = errors;
+        }
+
+        @Override
+        protected Counts compute() {
+            Counts counts = new Counts();
+            List<ForkJoinTask<Counts>> subtasks = new ArrayList<>();
+            List<Path> files = new ArrayList<>();
+            List<BasicFileAttributes> fileAttributes = new ArrayList<>();
+
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path child : stream) {
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (NoSuchFileException e) {
+                        continue;
+                    } catch (IOException e) {
+                        errors.add("Failed to read " + child + ": " + describe(e));
+                        counts.complete = false;
+                        continue;
+                    }
+
+                    if (attributes.isDirectory()) {
+                        // Unterverzeichnisse sofort abzweigen, damit sie parallel gelöscht werden
+                        subtasks.add(new DirectoryTask(child, errors).fork());
+                    } else {
+                        files.add(child);
+                        fileAttributes.add(attributes);
+                        if (files.size() == BATCH_SIZE) {
+                            subtasks.add(new FileBatchTask(files, fileAttributes, errors).fork());
+                            files = new ArrayList<>();
+                            fileAttributes = new ArrayList<>();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                errors.add("Failed to list " + directory + ": " + describe(e));
+                counts.complete = false;
+            }
+
+            counts.add(new FileBatchTask(files, fileAttributes, errors).compute());
+            for (ForkJoinTask<Counts> subtask : subtasks) {
+                counts.add(subtask.join());
+            }
+
+            // Erst wenn alles darunter weg ist, das Verzeichnis selbst
+            if (counts.complete) {
+                try {
+                    Files.delete(directory);
+                    counts.directories++;
+                    MetadataCache.get().invalidate(directory);
+                } catch (NoSuchFileException e) {
+                    // Schon weg
+                } catch (DirectoryNotEmptyException e) {
+                    errors.add("Directory not empty (changed while deleting): " + directory);
+                    counts.complete = false;
+                } catch (IOException e) {
+                    errors.add("Failed to delete " + directory + ": " + describe(e));
+                    counts.complete = false;
+                }
+            }
+            return counts;
+        }
+    }
+
+    private static final class FileBatchTask extends RecursiveTask<Counts> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> files;
+        private final List<BasicFileAttributes> attributes;
+        private final Queue<String> errors;
+
+        FileBatchTask(List<Path> files, List<BasicFileAttributes> attributes, Queue<String> errors) {
+            this.files = files;
+            this.attributes = attributes;
+            this.errors = errors;
+        }
+
+        @Override
+        protected Counts compute() {
+            Counts counts = new Counts();
+            for (int i = 0; i < files.size(); i++) {
+                deleteFile(files.get(i), attributes.get(i), counts, errors);
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Directory walk shared by {@code tree} and {@code ls -R}. Every directory is listed by its own
+ * task on the {@link IoPool}. The listings run ahead of the caller, which renders the tree
+ * depth-first in name order, in parallel but at most 16 per thread at a time; a directory
+ * hands its entries to the caller once and then forgets them, so memory grows with the path
+ * being printed, not with the whole tree. Listings come from the {@link MetadataCache}, so
+ * walking an unchanged tree again costs no I/O.
+ * Symbolic links are only followed on request, and then a link back to one of its own
+ * ancestors is reported as a cycle instead of being descended.
+ */
+final class DirectoryWalker {
+    private static final Comparator<Node> BY_NAME = Comparator.comparing(node -> node.name);
+    private static final LinkOption[] FOLLOW_LINKS = new LinkOption[0];
+
+    private final int maxDepth;
+    private final boolean followLinks;
+    private final boolean showHidden;
+    private final List<PathMatcher> prune = new ArrayList<>();
+    // Verzeichnisse in der Reihenfolge, in der sie gebraucht werden; nur der aufrufende Thread greift darauf zu
+    private final Deque<Node> waiting = new ArrayDeque<>();
+    // Begrenzt, wie viele Listen gleichzeitig laufen oder auf die Ausgabe warten; kleinere Fenster lassen die Ausgabe warten
+    private final int maxPending = IoPool.parallelism() * 16;
+    private int pending;
+
+    /**
+     * @param maxDepth number of levels below the root to list, {@link Integer#MAX_VALUE} for no limit
+     */
+    DirectoryWalker(int maxDepth, boolean followLinks, boolean showHidden) {
+        this.maxDepth = maxDepth;
+        this.followLinks = followLinks;
+        this.showHidden = showHidden;
+    }
+
+    /**
+     * Entries whose name matches the glob are neither shown nor descended into.
+     */
+    DirectoryWalker prune(String glob) {
+        prune.add(FileSystems.getDefault().getPathMatcher("glob:" + glob));
+        return this;
+    }
+
+    static final class Node {
+        final Path path;
+        final String name;
+        final FileInfo info;
+        final int depth;
+        private final DirectoryWalker walker;
+        private Ancestor ancestors;
+        // Wird gelistet, sobald es an der Reihe ist oder gebraucht wird
+        private boolean listable;
+        private ForkJoinTask<List<Node>> listing;
+        private boolean cycle;
+        private String error;
+
+        Node(DirectoryWalker walker, FileInfo info, int depth) {
+            this.path = info.path;
+            this.name = info.name;
+            this.info = info;
+            this.depth = depth;
+            this.walker = walker;
+        }
+
+        boolean isDirectory() {
+            return info.isDirectory();
+        }
+
+        /**
+         * True if this directory is a link back to one of its ancestors and was not descended.
+         */
+        boolean isCycle() {
+            return cycle;
+        }
+
+        /**
+         * The reason the directory could not be listed, or {@code null}; known once
+         * {@link #children()} has returned.
+         */
+        String error() {
+            return error;
+        }
+
+        /**
+         * The sorted entries of this directory; waits until its listing task is done.
+         * Empty for files and for directories beyond the depth limit. The entries are handed
+         * out only once, so call this when rendering the directory.
+         */
+        List<Node> children() {
+            return listable ? walker.take(this) : Collections.emptyList();
+        }
+    }
+
+    private static final class Ancestor {
+        final Object key;
+        final Ancestor parent;
+
+        Ancestor(Object key, Ancestor parent) {
+            this.key = key;
+            this.parent = parent;
+        }
+
+        boolean contains(Object candidate) {
+            for (Ancestor a = this; a != null; a = a.parent) {
+                if (a.key.equals(candidate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Starts the walk at {@code root}. The nodes must be rendered on the calling thread.
+     */
+    Node walk(Path root) throws IOException {
+        Node node = new Node(this, FileInfo.read(root, FOLLOW_LINKS), 0);
+        if (followLinks) {
+            node.ancestors = new Ancestor(key(root, node.info.attributes), null);
+        }
+        if (node.isDirectory() && maxDepth > 0) {
+            node.listable = true;
+            submit(node);
+        }
+        return node;
+    }
+
+    private List<Node> take(Node directory) {
+        if (directory.listing == null) {
+            // Das Vorauslesen ist noch nicht so weit (z.B. bei ls -R nach Größe sortiert)
+            submit(directory);
+        }
+        List<Node> entries = directory.listing.join();
+        directory.listing = null;
+        directory.listable = false;
+        pending--;
+
+        // Die Unterverzeichnisse werden als nächstes ausgegeben, also vorne einreihen
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            if (entries.get(i).listable) {
+                waiting.addFirst(entries.get(i));
+            }
+        }
+        while (pending < maxPending && !waiting.isEmpty()) {
+            Node next = waiting.pollFirst();
+            if (next.listable && next.listing == null) {
+                submit(next);
+            }
+        }
+        return entries;
+    }
+
+    private void submit(Node directory) {
+        directory.listing = IoPool.get().submit(new ListTask(directory));
+        pending++;
+    }
+
+    private final class ListTask extends RecursiveTask<List<Node>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Node directory;
+
+        ListTask(Node directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected List<Node> compute() {
+            List<Node> entries = new ArrayList<>();
+            try {
+                for (FileInfo child : MetadataCache.get().list(directory.path)) {
+                    if ((!showHidden && child.name.startsWith(".")) || isPruned(child.path)) {
+                        continue;
+                    }
+                    entries.add(new Node(DirectoryWalker.this, followLinks ? follow(child) : child, directory.depth + 1));
+                }
+            } catch (IOException e) {
+                directory.error = e.getMessage();
+                return Collections.emptyList();
+            }
+
+            entries.sort(BY_NAME);
+
+            // Unterverzeichnisse nur vormerken; gelistet werden sie, wenn das Fenster Platz hat
+            for (Node entry : entries) {
+                if (!entry.isDirectory() || entry.depth >= maxDepth) {
+                    continue;
+                }
+                if (followLinks) {
+                    Object key = key(entry.path, entry.info.attributes);
+                    if (directory.ancestors.contains(key)) {
+                        entry.cycle = true;
+                        continue;
+                    }
+                    entry.ancestors = new Ancestor(key, directory.ancestors);
+                }
+                entry.listable = true;
+            }
+            return entries;
+        }
+
+        private FileInfo follow(FileInfo child) {
+            if (!child.attributes.isSymbolicLink()) {
+                return child;
+            }
+            try {
+                return FileInfo.read(child.path, FOLLOW_LINKS);
+            } catch (IOException e) {
+                // Defekter Link: den Link selbst anzeigen
+                return child;
+            }
+        }
+    }
+
+    private boolean isPruned(Path path) {
+        Path name = path.getFileName();
+        for (PathMatcher matcher : prune) {
+            if (matcher.matches(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object key(Path path, BasicFileAttributes attributes) {
+        Object key = attributes.fileKey();
+        if (key != null) {
+            return key;
+        }
+        // Ohne fileKey (z.B. unter Windows) den echten Pfad vergleichen
+        try {
+            return path.toRealPath().toString();
+        } catch (IOException e) {
+            return path.toAbsolutePath().normalize().toString();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package Terminal;
+
+/**
+ * {@code echo}: prints its arguments separated by single spaces.
+ */
+final class EchoCommand implements Command {
+    @Override
+    public String name() {
+        return "echo";
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"echo <message>\tDisplay a message"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: echo <message>",
+                "Display a message. $USER is replaced by the name of the current user."
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        if (arguments.operands.isEmpty()) {
+            context.err.println("Missing argument for echo command.");
+            return USAGE;
+        }
+
+        // Anführungszeichen hat schon der Lexer entfernt
+        String outputMessage = String.join(" ", arguments.operands);
+
+        // Ersetze $USER durch den tatsächlichen Benutzernamen
+        if (outputMessage.contains("$USER")) {
+            String currentUser = System.getProperty("user.name");
+            outputMessage = outputMessage.replace("$USER", currentUser);
+        }
+        context.out.println(outputMessage);
+        return SUCCESS;
+    }
+}
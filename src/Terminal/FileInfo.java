@@ -0,0 +1,133 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A directory entry together with its attributes, fetched with a single stat call.
+ * On POSIX file systems that includes the real owner, group and permission bits;
+ * elsewhere the basic (or DOS) attributes are used. Sorting and {@code ls -l} work
+ * on these cached values only.
+ */
+final class FileInfo {
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    private static final boolean DOS = FileSystems.getDefault().supportedFileAttributeViews().contains("dos");
+
+    static final Comparator<FileInfo> BY_NAME = Comparator.comparing(info -> info.name);
+    static final Comparator<FileInfo> BY_TIME = Comparator.comparingLong(FileInfo::lastModified).reversed().thenComparing(BY_NAME);
+    static final Comparator<FileInfo> BY_SIZE = Comparator.comparingLong(FileInfo::size).reversed().thenComparing(BY_NAME);
+
+    final Path path;
+    final String name;
+    final BasicFileAttributes attributes;
+
+    private FileInfo(Path path, String name, BasicFileAttributes attributes) {
+        this.path = path;
+        this.name = name;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Reads the attributes of {@code path} without following a final symbolic link.
+     */
+    static FileInfo read(Path path) throws IOException {
+        return read(path, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    static FileInfo read(Path path, LinkOption... options) throws IOException {
+        Path fileName = path.getFileName();
+        String name = fileName == null ? path.toString() : fileName.toString();
+        BasicFileAttributes attributes;
+        if (POSIX) {
+            attributes = Files.readAttributes(path, PosixFileAttributes.class, options);
+        } else if (DOS) {
+            attributes = Files.readAttributes(path, DosFileAttributes.class, options);
+        } else {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class, options);
+        }
+        return new FileInfo(path, name, attributes);
+    }
+
+    /**
+     * Lists a directory with one attribute read per entry. Entries that vanish while
+     * listing are skipped.
+     */
+    static List<FileInfo> list(Path directory, boolean showHidden) throws IOException {
+        List<FileInfo> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path child : stream) {
+                if (!showHidden && child.getFileName().toString().startsWith(".")) {
+                    continue;
+                }
+                try {
+                    entries.add(read(child));
+                } catch (IOException e) {
+                    // Zwischen Auflisten und stat gelöscht
+                }
+            }
+        }
+        return entries;
+    }
+
+    boolean isDirectory() {
+        return attributes.isDirectory();
+    }
+
+    long size() {
+        return attributes.size();
+    }
+
+    long lastModified() {
+        return attributes.lastModifiedTime().toMillis();
+    }
+
+    String owner() {
+        return attributes instanceof PosixFileAttributes ? ((PosixFileAttributes) attributes).owner().getName() : "-";
+    }
+
+    String group() {
+        return attributes instanceof PosixFileAttributes ? ((PosixFileAttributes) attributes).group().getName() : "-";
+    }
+
+    String permissions() {
+        StringBuilder permissions = new StringBuilder(10);
+        if (attributes.isDirectory()) {
+            permissions.append('d');
+        } else if (attributes.isSymbolicLink()) {
+            permissions.append('l');
+        } else {
+            permissions.append('-');
+        }
+
+        if (attributes instanceof PosixFileAttributes) {
+            Set<PosixFilePermission> bits = ((PosixFileAttributes) attributes).permissions();
+            permissions.append(bits.contains(PosixFilePermission.OWNER_READ) ? 'r' : '-');
+            permissions.append(bits.contains(PosixFilePermission.OWNER_WRITE) ? 'w' : '-');
+            permissions.append(bits.contains(PosixFilePermission.OWNER_EXECUTE) ? 'x' : '-');
+            permissions.append(bits.contains(PosixFilePermission.GROUP_READ) ? 'r' : '-');
+            permissions.append(bits.contains(PosixFilePermission.GROUP_WRITE) ? 'w' : '-');
+            permissions.append(bits.contains(PosixFilePermission.GROUP_EXECUTE) ? 'x' : '-');
+            permissions.append(bits.contains(PosixFilePermission.OTHERS_READ) ? 'r' : '-');
+            permissions.append(bits.contains(PosixFilePermission.OTHERS_WRITE) ? 'w' : '-');
+            permissions.append(bits.contains(PosixFilePermission.OTHERS_EXECUTE) ? 'x' : '-');
+        } else {
+            // Ohne POSIX-Rechte gibt es nur das Schreibschutz-Flag, für alle gleich
+            boolean writable = !(attributes instanceof DosFileAttributes) || !((DosFileAttributes) attributes).isReadOnly();
+            String triple = "r" + (writable ? "w" : "-") + (attributes.isDirectory() ? "x" : "-");
+            permissions.append(triple).append(triple).append(triple);
+        }
+        return permissions.toString();
+    }
+}
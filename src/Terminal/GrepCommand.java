@@ -0,0 +1,261 @@
+package Terminal;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * {@code grep}: searches files for literal patterns or regular expressions, see {@link GrepEngine}.
+ * The exit status is 0 if something was selected, 1 if not and 2 on errors, as with GNU grep.
+ */
+final class GrepCommand implements Command {
+    private final OptionSpec options = new OptionSpec()
+            .flags("civnoErl")
+            .values("ef")
+            .longValues("include", "exclude", "exclude-dir");
+
+    @Override
+    public String name() {
+        return "grep";
+    }
+
+    @Override
+    public OptionSpec options() {
+        return options;
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{
+                "grep [options] <pattern> <file>\tSearch for a pattern in a file and display matching lines",
+                "grep -c <pattern> <file>\tCount occurrences of a pattern in a file",
+                "grep -r <pattern> [dir...]\tSearch all files below the directories"
+        };
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: grep <pattern> <file>",
+                "Search for a pattern in a file and display matching lines.",
+                "Usage: grep -c <pattern> <file>",
+                "Count occurrences of a pattern in a file.",
+                "Options:",
+                "  -E - Treat the pattern as a regular expression",
+                "  -i - Ignore case",
+                "  -v - Select lines that do not match",
+                "  -n - Prefix each line with its line number",
+                "  -o - Print only the matched parts",
+                "  -e <pattern> - Search for this pattern; can be repeated",
+                "  -f <file> - Read patterns from a file, one per line",
+                "With several literal patterns the file is read only once; -c prints a count per pattern.",
+                "Without a file the input from a pipe is searched (e.g. cat log.txt | grep ERROR).",
+                "Usage: grep -r [options] <pattern> [directory...]",
+                "Search all files below the directories (default: current directory) in parallel.",
+                "  -l                 - Only list the files that contain a match",
+                "  -c                 - Print the number of occurrences per file",
+                "  --include=GLOB     - Only search files whose name matches GLOB",
+                "  --exclude=GLOB     - Skip files whose name matches GLOB",
+                "  --exclude-dir=GLOB - Skip directories whose name matches GLOB"
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        GrepEngine.Options options = new GrepEngine.Options();
+        options.count = arguments.has('c');
+        options.ignoreCase = arguments.has('i');
+        options.invert = arguments.has('v');
+        options.lineNumbers = arguments.has('n');
+        options.onlyMatching = arguments.has('o');
+        options.regex = arguments.has('E');
+        options.recursive = arguments.has('r');
+        options.listFiles = arguments.has('l');
+        options.includeGlobs.addAll(arguments.values("include"));
+        options.excludeGlobs.addAll(arguments.values("exclude"));
+        options.excludeDirGlobs.addAll(arguments.values("exclude-dir"));
+        options.highlight = context.out.isConsole();
+
+        List<String> patterns = new ArrayList<>();
+        List<String> filePaths = new ArrayList<>(arguments.operands);
+        if (arguments.has('e') || arguments.has('f')) {
+            // -e und -f in der Reihenfolge der Kommandozeile
+            for (String[] value : arguments.orderedValues()) {
+                if (value[0].equals("e")) {
+                    patterns.add(value[1]);
+                } else if (value[0].equals("f") && !readPatternFile(context, value[1], patterns)) {
+                    return USAGE;
+                }
+            }
+        } else if (!filePaths.isEmpty()) {
+            patterns.add(filePaths.remove(0));
+        }
+
+        boolean fromInput = filePaths.isEmpty() && !options.recursive && context.in != null;
+        if (patterns.isEmpty() || (filePaths.isEmpty() && !options.recursive && !fromInput)) {
+            context.err.println("Usage: grep [-c] [-i] [-v] [-n] [-o] [-E] <pattern> <file>");
+            context.err.println("       grep [options] -e <pattern> [-e <pattern>...] | -f <pattern file> <file>");
+            context.err.println("       grep -r [-l] [-c] [--include=GLOB] [--exclude=GLOB] [--exclude-dir=GLOB] <pattern> [directory...]");
+            return USAGE;
+        }
+
+        if (fromInput) {
+            return grepInput(context, patterns, options);
+        } else if (options.recursive || options.listFiles || filePaths.size() > 1) {
+            return grepFiles(context, patterns, filePaths, options);
+        } else if (options.count) {
+            return grepCountOccurrences(context, patterns, filePaths.get(0), options);
+        } else {
+            return grepAndHighlight(context, patterns, filePaths.get(0), options);
+        }
+    }
+
+    private static boolean readPatternFile(CommandContext context, String filePath, List<String> patterns) {
+        File file = context.resolve(filePath).toFile();
+
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                patterns.add(line.endsWith("\r") ? line.substring(0, line.length() - 1) : line);
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            context.err.println("File not found: " + filePath);
+        } catch (IOException e) {
+            context.err.println("Error reading file: " + e.getMessage());
+        }
+        return false;
+    }
+
+    private static int grepFiles(CommandContext context, List<String> patterns, List<String> filePaths,
+                                 GrepEngine.Options options) {
+        List<Path> roots = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        boolean missing = false;
+
+        if (filePaths.isEmpty()) {
+            // Ohne Angabe das aktuelle Verzeichnis durchsuchen, Pfade relativ dazu ausgeben
+            roots.add(context.directory());
+            labels.add(null);
+        }
+        for (String filePath : filePaths) {
+            Path path = context.resolve(filePath);
+            if (!Files.exists(path)) {
+                context.err.println("File not found: " + filePath);
+                missing = true;
+            } else if (Files.isDirectory(path) && !options.recursive) {
+                context.err.println("Is a directory: " + filePath);
+                missing = true;
+            } else {
+                roots.add(path);
+                labels.add(filePath);
+            }
+        }
+
+        try {
+            GrepEngine.Searcher searcher = GrepEngine.compile(patterns, options);
+            RecursiveGrep.Summary summary = RecursiveGrep.search(roots, labels, searcher, options, context.out, context.err, context.io);
+            if (missing || summary.errors > 0) {
+                return USAGE;
+            }
+            return summary.selected > 0 ? SUCCESS : FAILURE;
+        } catch (PatternSyntaxException e) {
+            context.err.println("Invalid pattern: " + e.getDescription());
+        } catch (IOException e) {
+            context.err.println("Error reading file: " + e.getMessage());
+        }
+        return USAGE;
+    }
+
+    private static int grepInput(CommandContext context, List<String> patterns, GrepEngine.Options options) {
+        try {
+            if (options.listFiles) {
+                long selected = GrepEngine.search(context.in, GrepEngine.compile(patterns, options), options, context.out);
+                if (selected > 0) {
+                    context.out.println("(standard input)");
+                }
+                return selected > 0 ? SUCCESS : FAILURE;
+            }
+            return options.count
+                    ? grepCountOccurrences(context, patterns, context.in, options)
+                    : grepAndHighlight(context, patterns, context.in, options);
+        } catch (PatternSyntaxException e) {
+            context.err.println("Invalid pattern: " + e.getDescription());
+        } catch (IOException e) {
+            context.err.println("Error reading input: " + e.getMessage());
+        }
+        return USAGE;
+    }
+
+    private static int grepAndHighlight(CommandContext context, List<String> patterns, String filePath,
+                                        GrepEngine.Options options) {
+        File file = context.resolve(filePath).toFile();
+
+        if (file.exists() && file.isFile()) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                return grepAndHighlight(context, patterns, context.io.count(channel), options);
+            } catch (PatternSyntaxException e) {
+                context.err.println("Invalid pattern: " + e.getDescription());
+            } catch (IOException e) {
+                context.err.println("Error reading file: " + e.getMessage());
+            }
+        } else {
+            context.err.println("File not found: " + filePath);
+        }
+        return USAGE;
+    }
+
+    private static int grepAndHighlight(CommandContext context, List<String> patterns, ReadableByteChannel in,
+                                        GrepEngine.Options options) throws IOException {
+        long selected = GrepEngine.search(in, GrepEngine.compile(patterns, options), options, context.out);
+        return selected > 0 ? SUCCESS : FAILURE;
+    }
+
+    private static int grepCountOccurrences(CommandContext context, List<String> patterns, String filePath,
+                                            GrepEngine.Options options) {
+        File file = context.resolve(filePath).toFile();
+
+        if (file.exists() && file.isFile()) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                return grepCountOccurrences(context, patterns, context.io.count(channel), options);
+            } catch (PatternSyntaxException e) {
+                context.err.println("Invalid pattern: " + e.getDescription());
+            } catch (IOException e) {
+                context.err.println("Error reading file: " + e.getMessage());
+            }
+        } else {
+            context.err.println("File not found: " + filePath);
+        }
+        return USAGE;
+    }
+
+    private static int grepCountOccurrences(CommandContext context, List<String> patterns, ReadableByteChannel in,
+                                            GrepEngine.Options options) throws IOException {
+        TerminalOutput out = context.out;
+        GrepEngine.Searcher searcher = GrepEngine.compile(patterns, options);
+        long occurrences = GrepEngine.search(in, searcher, options, out);
+        long[] patternCounts = searcher.patternCounts();
+
+        if (options.invert) {
+            out.println("Pattern \"" + String.join("\", \"", patterns) + "\" not found in " + occurrences + " line(s).");
+        } else if (patternCounts != null) {
+            // Ein Durchlauf, trotzdem eine Zeile pro Muster
+            for (int i = 0; i < patterns.size(); i++) {
+                out.println("Pattern \"" + patterns.get(i) + "\" found " + patternCounts[i] + " time(s).");
+            }
+        } else {
+            out.println("Pattern \"" + String.join("\", \"", patterns) + "\" found " + occurrences + " time(s).");
+        }
+        return occurrences > 0 ? SUCCESS : FAILURE;
+    }
+}
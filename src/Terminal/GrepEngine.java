@@ -0,0 +1,566 @@
+package Terminal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Line-oriented search over raw bytes. The pattern is compiled once into a {@link Searcher}:
+ * literals use a byte-level Boyer-Moore-Horspool scan, regular expressions (-E) a single
+ * precompiled {@link Pattern}, and sets of literals (-e, -f) an {@link AhoCorasick} automaton.
+ * Matches are reported as byte offsets, so highlighting just copies the line around them
+ * instead of rewriting strings.
+ */
+final class GrepEngine {
+    static final String HIGHLIGHT_START = "\u001B[31m";
+    static final String HIGHLIGHT_END = "\u001B[0m";
+
+    private static final byte[] HIGHLIGHT_START_BYTES = HIGHLIGHT_START.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HIGHLIGHT_END_BYTES = HIGHLIGHT_END.getBytes(StandardCharsets.US_ASCII);
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private GrepEngine() {
+    }
+
+    static final class Options {
+        boolean ignoreCase;
+        boolean invert;
+        boolean lineNumbers;
+        boolean onlyMatching;
+        boolean regex;
+        boolean count;
+        boolean listFiles;
+        boolean recursive;
+        /** Colour the matches; only makes sense when the output is the terminal. */
+        boolean highlight = true;
+        final List<String> includeGlobs = new ArrayList<>();
+        final List<String> excludeGlobs = new ArrayList<>();
+        final List<String> excludeDirGlobs = new ArrayList<>();
+    }
+
+    /**
+     * Finds matches inside a single line. Implementations may keep per-line state,
+     * so one instance must only be used by one thread at a time.
+     */
+    abstract static class Searcher {
+        /**
+         * Searches {@code buffer[from, lineEnd)} of the line starting at {@code lineStart}.
+         * On success the byte range of the match is stored in {@code range[0]} and {@code range[1]}.
+         */
+        abstract boolean find(byte[] buffer, int lineStart, int lineEnd, int from, int[] range);
+
+        /**
+         * Returns a searcher for another thread that shares the compiled pattern.
+         */
+        abstract Searcher copy();
+
+        /**
+         * Occurrences per pattern seen so far, or {@code null} if the searcher only knows one pattern.
+         */
+        long[] patternCounts() {
+            return null;
+        }
+    }
+
+    static Searcher compile(String pattern, Options options) {
+        if (options.regex) {
+            int flags = options.ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0;
+            return new RegexSearcher(Pattern.compile(pattern, flags));
+        }
+        if (options.ignoreCase && !isAscii(pattern)) {
+            // Groß-/Kleinschreibung außerhalb von ASCII kann nur der Regex-Matcher
+            return new RegexSearcher(Pattern.compile(Pattern.quote(pattern),
+                    Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE));
+        }
+        return new LiteralSearcher(pattern.getBytes(StandardCharsets.UTF_8), options.ignoreCase);
+    }
+
+    /**
+     * Compiles several patterns into one searcher, so the input is only read once.
+     * Literal sets become an Aho-Corasick automaton, regexes one alternation.
+     */
+    static Searcher compile(List<String> patterns, Options options) {
+        if (patterns.contains("")) {
+            // Ein leeres Muster passt auf jede Zeile; die übrigen braucht es nur noch zum Hervorheben
+            List<String> others = new ArrayList<>(patterns);
+            others.removeIf(String::isEmpty);
+            return new MatchAllSearcher(others.isEmpty() ? null : compile(others, options));
+        }
+        if (patterns.size() == 1) {
+            return compile(patterns.get(0), options);
+        }
+
+        boolean ascii = true;
+        for (String pattern : patterns) {
+            ascii &= isAscii(pattern);
+        }
+
+        if (options.regex || (options.ignoreCase && !ascii)) {
+            StringBuilder alternation = new StringBuilder();
+            for (String pattern : patterns) {
+                if (alternation.length() > 0) {
+                    alternation.append('|');
+                }
+                alternation.append("(?:").append(options.regex ? pattern : Pattern.quote(pattern)).append(')');
+            }
+            int flags = options.ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0;
+            return new RegexSearcher(Pattern.compile(alternation.toString(), flags));
+        }
+
+        List<byte[]> literals = new ArrayList<>();
+        for (String pattern : patterns) {
+            literals.add(pattern.getBytes(StandardCharsets.UTF_8));
+        }
+        return new MultiLiteralSearcher(new AhoCorasick(literals, options.ignoreCase));
+    }
+
+    static long search(ReadableByteChannel in, Searcher searcher, Options options, OutputStream out) throws IOException {
+        return search(in, searcher, options, out, null);
+    }
+
+    /**
+     * Searches the input line by line and writes the selected lines to {@code out}.
+     * With a {@code label} every line is prefixed with it, and inputs containing NUL bytes
+     * are reported as binary instead of printing their lines.
+     *
+     * @return the number of selected lines, or the number of occurrences when counting
+     */
+    static long search(ReadableByteChannel in, Searcher searcher, Options options, OutputStream out, String label)
+            throws IOException {
+        LineProcessor processor = new LineProcessor(searcher, options, out, label);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int length = 0;
+        int position = 0;
+        boolean sniffed = false;
+
+        while (!(options.listFiles && processor.selected > 0)) {
+            if (length == buffer.length) {
+                if (position > 0) {
+                    System.arraycopy(buffer, position, buffer, 0, length - position);
+                    length -= position;
+                    position = 0;
+                } else {
+                    // Zeile länger als der Puffer
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+
+            int read = in.read(ByteBuffer.wrap(buffer, length, buffer.length - length));
+            if (read == -1) {
+                if (position < length) {
+                    processor.process(buffer, position, length);
+                }
+                break;
+            }
+            length += read;
+
+            if (!sniffed) {
+                // Wie GNU grep: ein NUL-Byte am Anfang heißt Binärdatei
+                processor.binary = label != null && indexOf(buffer, (byte) 0, 0, length) != -1;
+                sniffed = true;
+            }
+
+            int newline;
+            while ((newline = indexOf(buffer, (byte) '\n', position, length)) != -1) {
+                processor.process(buffer, position, newline);
+                position = newline + 1;
+            }
+        }
+
+        if (processor.binary && processor.selected > 0 && !options.count && !options.listFiles) {
+            out.write(("Binary file " + label + " matches\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return processor.selected;
+    }
+
+    private static final class LineProcessor {
+        private final Searcher searcher;
+        private final Options options;
+        private final OutputStream out;
+        private final byte[] label;
+        private final int[] range = new int[2];
+        private long lineNumber;
+        private long selected;
+        private boolean binary;
+
+        LineProcessor(Searcher searcher, Options options, OutputStream out, String label) {
+            this.searcher = searcher;
+            this.options = options;
+            this.out = out;
+            this.label = label == null ? null : (label + ":").getBytes(StandardCharsets.UTF_8);
+        }
+
+        void process(byte[] buffer, int lineStart, int lineEnd) throws IOException {
+            lineNumber++;
+            boolean matched = searcher.find(buffer, lineStart, lineEnd, lineStart, range);
+
+            if (options.count) {
+                if (options.invert) {
+                    if (!matched) {
+                        selected++;
+                    }
+                } else {
+                    // Überlappende Vorkommen zählen, wie bisher bei grep -c
+                    while (matched) {
+                        selected++;
+                        int next = range[0] + 1;
+                        matched = next <= lineEnd && searcher.find(buffer, lineStart, lineEnd, next, range);
+                    }
+                }
+                return;
+            }
+
+            if (matched == options.invert) {
+                return;
+            }
+            selected++;
+            if (binary || options.listFiles) {
+                return;
+            }
+
+            if (options.invert) {
+                writePrefix();
+                out.write(buffer, lineStart, lineEnd - lineStart);
+                out.write('\n');
+                return;
+            }
+
+            if (options.onlyMatching) {
+                while (matched) {
+                    if (range[1] > range[0]) {
+                        writePrefix();
+                        writeHighlighted(buffer, range[0], range[1]);
+                        out.write('\n');
+                    }
+                    int next = range[1] > range[0] ? range[1] : range[1] + 1;
+                    matched = next <= lineEnd && searcher.find(buffer, lineStart, lineEnd, next, range);
+                }
+                return;
+            }
+
+            writePrefix();
+            int written = lineStart;
+            while (matched) {
+                if (range[1] > range[0]) {
+                    out.write(buffer, written, range[0] - written);
+                    writeHighlighted(buffer, range[0], range[1]);
+                    written = range[1];
+                }
+                int next = range[1] > range[0] ? range[1] : range[1] + 1;
+                matched = next <= lineEnd && searcher.find(buffer, lineStart, lineEnd, next, range);
+            }
+            out.write(buffer, written, lineEnd - written);
+            out.write('\n');
+        }
+
+        private void writePrefix() throws IOException {
+            if (label != null) {
+                out.write(label);
+            }
+            if (options.lineNumbers) {
+                out.write(Long.toString(lineNumber).getBytes(StandardCharsets.US_ASCII));
+                out.write(':');
+            }
+        }
+
+        private void writeHighlighted(byte[] buffer, int start, int end) throws IOException {
+            if (!options.highlight) {
+                out.write(buffer, start, end - start);
+                return;
+            }
+            out.write(HIGHLIGHT_START_BYTES);
+            out.write(buffer, start, end - start);
+            out.write(HIGHLIGHT_END_BYTES);
+        }
+    }
+
+    private static final class LiteralSearcher extends Searcher {
+        private static final byte[] FOLD = new byte[256];
+
+        static {
+            for (int i = 0; i < 256; i++) {
+                FOLD[i] = (byte) (i >= 'A' && i <= 'Z' ? i + ('a' - 'A') : i);
+            }
+        }
+
+        private final byte[] needle;
+        private final boolean ignoreCase;
+        private final int[] shift = new int[256];
+
+        LiteralSearcher(byte[] needle, boolean ignoreCase) {
+            this.ignoreCase = ignoreCase;
+            this.needle = needle.clone();
+            int m = needle.length;
+            Arrays.fill(shift, Math.max(m, 1));
+            for (int i = 0; i < m; i++) {
+                if (ignoreCase) {
+                    this.needle[i] = FOLD[needle[i] & 0xff];
+                }
+            }
+            for (int i = 0; i < m - 1; i++) {
+                int b = this.needle[i] & 0xff;
+                shift[b] = m - 1 - i;
+                if (ignoreCase && b >= 'a' && b <= 'z') {
+                    shift[b - ('a' - 'A')] = m - 1 - i;
+                }
+            }
+        }
+
+        @Override
+        boolean find(byte[] buffer, int lineStart, int lineEnd, int from, int[] range) {
+            int m = needle.length;
+            if (m == 0) {
+                range[0] = from;
+                range[1] = from;
+                return from <= lineEnd;
+            }
+
+            byte lastNeedle = needle[m - 1];
+            int i = from;
+            int last = lineEnd - m;
+            while (i <= last) {
+                int b = buffer[i + m - 1] & 0xff;
+                byte c = ignoreCase ? FOLD[b] : (byte) b;
+                if (c == lastNeedle && matchesAt(buffer, i, m - 1)) {
+                    range[0] = i;
+                    range[1] = i + m;
+                    return true;
+                }
+                i += shift[b];
+            }
+            return false;
+        }
+
+        private boolean matchesAt(byte[] buffer, int offset, int length) {
+            if (ignoreCase) {
+                for (int j = 0; j < length; j++) {
+                    if (FOLD[buffer[offset + j] & 0xff] != needle[j]) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return Arrays.equals(buffer, offset, offset + length, needle, 0, length);
+        }
+
+        @Override
+        Searcher copy() {
+            return this;
+        }
+    }
+
+    private static final class MultiLiteralSearcher extends Searcher {
+        private final AhoCorasick automaton;
+        private final long[] counts;
+        // Treffer der aktuellen Zeile, nach Anfang sortiert und zusammengefasst
+        private long[] matches = new long[16];
+        private int matchCount;
+        private int cursor;
+
+        MultiLiteralSearcher(AhoCorasick automaton) {
+            this.automaton = automaton;
+            this.counts = new long[automaton.patternCount()];
+        }
+
+        @Override
+        boolean find(byte[] buffer, int lineStart, int lineEnd, int from, int[] range) {
+            if (from == lineStart) {
+                scanLine(buffer, lineStart, lineEnd);
+            }
+
+            while (cursor < matchCount && start(matches[cursor]) < from) {
+                cursor++;
+            }
+            if (cursor == matchCount) {
+                return false;
+            }
+            range[0] = start(matches[cursor]);
+            range[1] = end(matches[cursor]);
+            return true;
+        }
+
+        private void scanLine(byte[] buffer, int lineStart, int lineEnd) {
+            matchCount = 0;
+            cursor = 0;
+            int state = 0;
+            for (int i = lineStart; i < lineEnd; i++) {
+                state = automaton.next(state, buffer[i]);
+                int[] found = automaton.outputs(state);
+                for (int pattern : found) {
+                    counts[pattern]++;
+                    if (matchCount == matches.length) {
+                        matches = Arrays.copyOf(matches, matchCount * 2);
+                    }
+                    matches[matchCount++] = ((long) (i + 1 - automaton.length(pattern)) << 32) | (i + 1);
+                }
+            }
+            if (matchCount == 0) {
+                return;
+            }
+
+            // Überlappende Treffer zu Bereichen zusammenfassen, damit Hervorhebungen nicht doppelt sind
+            Arrays.sort(matches, 0, matchCount);
+            int merged = 0;
+            for (int i = 1; i < matchCount; i++) {
+                if (start(matches[i]) <= end(matches[merged])) {
+                    int end = Math.max(end(matches[merged]), end(matches[i]));
+                    matches[merged] = ((long) start(matches[merged]) << 32) | end;
+                } else {
+                    matches[++merged] = matches[i];
+                }
+            }
+            matchCount = merged + 1;
+        }
+
+        private static int start(long match) {
+            return (int) (match >>> 32);
+        }
+
+        private static int end(long match) {
+            return (int) match;
+        }
+
+        @Override
+        Searcher copy() {
+            return new MultiLiteralSearcher(automaton);
+        }
+
+        @Override
+        long[] patternCounts() {
+            return counts;
+        }
+    }
+
+    /**
+     * Matches every line, as an empty pattern does: the matches of the other patterns where
+     * there are some, otherwise one empty match at the start of the line.
+     */
+    private static final class MatchAllSearcher extends Searcher {
+        private final Searcher others;
+
+        MatchAllSearcher(Searcher others) {
+            this.others = others;
+        }
+
+        @Override
+        boolean find(byte[] buffer, int lineStart, int lineEnd, int from, int[] range) {
+            if (others != null && others.find(buffer, lineStart, lineEnd, from, range)) {
+                return true;
+            }
+            range[0] = lineStart;
+            range[1] = lineStart;
+            return from == lineStart;
+        }
+
+        @Override
+        Searcher copy() {
+            return new MatchAllSearcher(others == null ? null : others.copy());
+        }
+    }
+
+    private static final class RegexSearcher extends Searcher {
+        private final Matcher matcher;
+        // Meldet ungültiges UTF-8, statt es durch U+FFFD zu ersetzen (das auch echt im Text stehen kann)
+        private final CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        private String line = "";
+        private boolean latin1;
+        // Zuletzt bekannte Position als Paar aus Zeichen- und Byte-Offset
+        private int charPosition;
+        private int bytePosition;
+
+        RegexSearcher(Pattern pattern) {
+            this.matcher = pattern.matcher("");
+        }
+
+        @Override
+        boolean find(byte[] buffer, int lineStart, int lineEnd, int from, int[] range) {
+            if (from == lineStart) {
+                try {
+                    line = utf8.reset().decode(ByteBuffer.wrap(buffer, lineStart, lineEnd - lineStart)).toString();
+                    latin1 = false;
+                } catch (CharacterCodingException e) {
+                    // Ungültiges UTF-8: byteweise dekodieren, damit die Offsets stimmen
+                    line = new String(buffer, lineStart, lineEnd - lineStart, StandardCharsets.ISO_8859_1);
+                    latin1 = true;
+                }
+                matcher.reset(line);
+                charPosition = 0;
+                bytePosition = lineStart;
+            }
+
+            advanceTo(from, Integer.MAX_VALUE);
+            if (charPosition > line.length() || !matcher.find(charPosition)) {
+                return false;
+            }
+
+            advanceTo(Integer.MAX_VALUE, matcher.start());
+            range[0] = bytePosition;
+            int startChar = charPosition;
+            int startByte = bytePosition;
+            advanceTo(Integer.MAX_VALUE, matcher.end());
+            range[1] = bytePosition;
+
+            // Auf dem Match-Anfang stehen bleiben, auch überlappende Suchen beginnen dahinter
+            charPosition = startChar;
+            bytePosition = startByte;
+            return true;
+        }
+
+        @Override
+        Searcher copy() {
+            return new RegexSearcher(matcher.pattern());
+        }
+
+        private void advanceTo(int targetByte, int targetChar) {
+            while (bytePosition < targetByte && charPosition < targetChar && charPosition < line.length()) {
+                char c = line.charAt(charPosition);
+                if (latin1 || c < 0x80) {
+                    bytePosition += 1;
+                    charPosition += 1;
+                } else if (c < 0x800) {
+                    bytePosition += 2;
+                    charPosition += 1;
+                } else if (Character.isHighSurrogate(c) && charPosition + 1 < line.length()) {
+                    bytePosition += 4;
+                    charPosition += 2;
+                } else {
+                    bytePosition += 3;
+                    charPosition += 1;
+                }
+            }
+            if (bytePosition < targetByte && charPosition >= line.length()) {
+                charPosition = line.length() + 1;
+            }
+        }
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int indexOf(byte[] buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,137 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@code head}: prints the first lines (or bytes) of files or of its input. It stops reading
+ * as soon as it has enough, which in a pipeline also ends the commands in front of it.
+ */
+final class HeadCommand implements Command {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OptionSpec options = new OptionSpec().values("nc");
+
+    @Override
+    public String name() {
+        return "head";
+    }
+
+    @Override
+    public OptionSpec options() {
+        return options;
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"head [-n lines] [file...]\tDisplay the first lines of files or of the input"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: head [-n lines] [-c bytes] [file...]",
+                "Display the first 10 lines of each file. Without files the input from a pipe is used",
+                "(e.g. cat big.log | head -n 5); reading stops as soon as enough has been printed.",
+                "Options:",
+                "  -n lines - Number of lines to print",
+                "  -c bytes - Number of bytes to print instead of lines"
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        boolean bytes = arguments.has('c');
+        String value = bytes ? arguments.value('c') : arguments.value('n');
+        long limit = 10;
+        if (value != null) {
+            try {
+                limit = Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                limit = -1;
+            }
+            if (limit < 0) {
+                context.err.println("Invalid number of " + (bytes ? "bytes" : "lines") + ": " + value);
+                return USAGE;
+            }
+        }
+
+        if (arguments.operands.isEmpty()) {
+            if (context.in == null) {
+                context.err.println("Missing argument for head command.");
+                return USAGE;
+            }
+            try {
+                head(context.in, context.out, limit, bytes);
+                return SUCCESS;
+            } catch (IOException e) {
+                context.err.println("Error reading input: " + e.getMessage());
+                return FAILURE;
+            }
+        }
+
+        int status = SUCCESS;
+        boolean headers = arguments.operands.size() > 1;
+        boolean first = true;
+        for (String fileName : arguments.operands) {
+            Path file = context.resolve(fileName);
+            if (Files.isDirectory(file)) {
+                context.err.println("Is a directory: " + fileName);
+                status = FAILURE;
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (headers) {
+                    // Wie GNU head: Kopfzeile je Datei, Leerzeile dazwischen
+                    context.out.println((first ? "" : "\n") + "==> " + fileName + " <==");
+                    first = false;
+                }
+                head(context.io.count(channel), context.out, limit, bytes);
+            } catch (NoSuchFileException e) {
+                context.err.println("File not found: " + fileName);
+                status = FAILURE;
+            } catch (IOException e) {
+                context.err.println("Error reading file: " + e.getMessage());
+                status = FAILURE;
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Copies the first {@code limit} lines or bytes of {@code in} and reads nothing after them.
+     */
+    private static void head(ReadableByteChannel in, TerminalOutput out, long limit, boolean bytes) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long remaining = limit;
+        while (remaining > 0) {
+            int read = in.read(ByteBuffer.wrap(buffer));
+            if (read < 0) {
+                return;
+            }
+            int end;
+            if (bytes) {
+                end = (int) Math.min(read, remaining);
+                remaining -= end;
+            } else {
+                end = 0;
+                while (remaining > 0 && end < read) {
+                    int newline = GrepEngine.indexOf(buffer, (byte) '\n', end, read);
+                    if (newline < 0) {
+                        end = read;
+                    } else {
+                        end = newline + 1;
+                        remaining--;
+                    }
+                }
+            }
+            out.write(buffer, 0, end);
+        }
+    }
+}
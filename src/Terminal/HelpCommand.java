@@ -0,0 +1,48 @@
+package Terminal;
+
+/**
+ * {@code help}: lists all registered commands or shows the help of one of them.
+ */
+final class HelpCommand implements Command {
+    @Override
+    public String name() {
+        return "help";
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"help <command>\tShow help for a specific command"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{"Usage: help <command>", "Show help for a specific command."};
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        TerminalOutput out = context.out;
+        String name = arguments.operand(0);
+
+        if (name == null) {
+            out.println("Available commands:");
+            for (Command command : context.session.registry.commands()) {
+                for (String line : command.summary()) {
+                    int tab = line.indexOf('\t');
+                    out.printf("  %-26s - %s%n", line.substring(0, tab), line.substring(tab + 1));
+                }
+            }
+            return SUCCESS;
+        }
+
+        Command command = context.session.registry.find(name);
+        if (command == null) {
+            context.err.println("Command not found: " + name);
+            return FAILURE;
+        }
+        for (String line : command.help()) {
+            out.println(line);
+        }
+        return SUCCESS;
+    }
+}
@@ -0,0 +1,82 @@
+package Terminal;
+
+/**
+ * {@code history}: lists, searches or clears the {@link CommandHistory}.
+ */
+final class HistoryCommand implements Command {
+    private static final String ENTRY_FORMAT = "%5d  %s";
+
+    private final OptionSpec options = new OptionSpec().flags("c").values("s");
+
+    @Override
+    public String name() {
+        return "history";
+    }
+
+    @Override
+    public OptionSpec options() {
+        return options;
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"history [-c] [-s text] [n]\tShow, search or clear the command history"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: history [-c] [-s text] [n]",
+                "List the command history, or its last n entries. The last " + CommandHistory.DEFAULT_CAPACITY
+                        + " commands are kept",
+                "and saved in ~/" + CommandHistory.FILE_NAME + ".",
+                "Options:",
+                "  -c      - Clear the history of this session",
+                "  -s text - List the entries containing text, newest first",
+                "In a command line these refer to history entries:",
+                "  !!      - The previous command",
+                "  !n      - Entry n",
+                "  !-n     - The n-th previous command",
+                "  !text   - The newest command starting with text",
+                "  !?text? - The newest command containing text"
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        CommandHistory history = context.session.history;
+        if (arguments.has('c')) {
+            history.clear();
+            return SUCCESS;
+        }
+
+        if (arguments.has('s')) {
+            String text = arguments.value('s');
+            int found = 0;
+            // Jeder Schritt sucht nur vor dem letzten Treffer weiter
+            for (long number = history.search(text, history.last() + 1); number > 0;
+                 number = history.search(text, number)) {
+                context.out.println(String.format(ENTRY_FORMAT, number, history.get(number)));
+                found++;
+            }
+            return found > 0 ? SUCCESS : FAILURE;
+        }
+
+        long count = history.size();
+        if (!arguments.operands.isEmpty()) {
+            try {
+                count = Math.min(count, Long.parseLong(arguments.operand(0)));
+            } catch (NumberFormatException e) {
+                count = -1;
+            }
+            if (count < 0) {
+                context.err.println("Invalid number of entries: " + arguments.operand(0));
+                return USAGE;
+            }
+        }
+        for (long number = history.last() - count + 1; number <= history.last(); number++) {
+            context.out.println(String.format(ENTRY_FORMAT, number, history.get(number)));
+        }
+        return SUCCESS;
+    }
+}
@@ -0,0 +1,52 @@
+package Terminal;
+
+import java.net.InetAddress;
+import java.net.InterfaceAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * {@code ifconfig}: shows the addresses of all network interfaces.
+ */
+final class IfconfigCommand implements Command {
+    @Override
+    public String name() {
+        return "ifconfig";
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"ifconfig\tDisplay network interface information"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{"Usage: ifconfig", "Display network interface information."};
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) throws SocketException {
+        Enumeration<NetworkInterface> networkInterfaces = NetworkInterface.getNetworkInterfaces();
+
+        while (networkInterfaces.hasMoreElements()) {
+            NetworkInterface networkInterface = networkInterfaces.nextElement();
+            context.out.println("Interface: " + networkInterface.getName());
+
+            List<InterfaceAddress> interfaceAddresses = networkInterface.getInterfaceAddresses();
+            for (InterfaceAddress interfaceAddress : interfaceAddresses) {
+                InetAddress address = interfaceAddress.getAddress();
+                context.out.println("  IP Address: " + address.getHostAddress());
+                context.out.println("  Subnet Mask: " + calculateSubnetMask(interfaceAddress.getNetworkPrefixLength()));
+                context.out.println();
+            }
+        }
+        return SUCCESS;
+    }
+
+    private static String calculateSubnetMask(short prefixLength) {
+        int subnetMask = 0xffffffff << (32 - prefixLength);
+        return (subnetMask >>> 24) + "." + ((subnetMask >> 16) & 0xff) + "." + ((subnetMask >> 8) & 0xff) + "." + (subnetMask & 0xff);
+    }
+}
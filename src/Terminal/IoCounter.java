@@ -0,0 +1,75 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bytes one command read and wrote, counted where the data passes: its input and the files
+ * it streams through {@link #count(ReadableByteChannel)}, mapped files, copies and archives
+ * by the bytes the engines report, and its output and error output by the {@link CommandMetrics}
+ * when the command ends. The counter of a pipeline stage passes everything on to the counter
+ * of the whole command line, so {@code time} sees all stages. Engines may count from several
+ * threads at once.
+ */
+final class IoCounter {
+    private final IoCounter parent;
+    private final LongAdder read = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    IoCounter() {
+        this(null);
+    }
+
+    IoCounter(IoCounter parent) {
+        this.parent = parent;
+    }
+
+    void addRead(long bytes) {
+        for (IoCounter counter = this; counter != null; counter = counter.parent) {
+            counter.read.add(bytes);
+        }
+    }
+
+    void addWritten(long bytes) {
+        for (IoCounter counter = this; counter != null; counter = counter.parent) {
+            counter.written.add(bytes);
+        }
+    }
+
+    long read() {
+        return read.sum();
+    }
+
+    long written() {
+        return written.sum();
+    }
+
+    /**
+     * {@code channel}, with every byte read through it added to this counter. Closing the
+     * result closes {@code channel}.
+     */
+    ReadableByteChannel count(ReadableByteChannel channel) {
+        return new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer target) throws IOException {
+                int read = channel.read(target);
+                if (read > 0) {
+                    addRead(read);
+                }
+                return read;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return channel.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+}
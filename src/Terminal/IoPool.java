@@ -0,0 +1,33 @@
+package Terminal;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared fork-join pool for file system work. It is sized above the core count because
+ * its tasks spend most of their time blocked in I/O; CPU-bound work stays on the common pool.
+ */
+final class IoPool {
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final ForkJoinPool POOL = new ForkJoinPool(
+            Math.max(4, Runtime.getRuntime().availableProcessors() * 2),
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("terminal-io-" + THREAD_COUNTER.incrementAndGet());
+                return thread;
+            },
+            null,
+            false);
+
+    private IoPool() {
+    }
+
+    static ForkJoinPool get() {
+        return POOL;
+    }
+
+    static int parallelism() {
+        return POOL.getParallelism();
+    }
+}
@@ -0,0 +1,206 @@
+package Terminal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@code kill}: terminates processes by PID or by program name through {@link ProcessHandle}.
+ */
+final class KillCommand implements Command {
+    private final OptionSpec options = new OptionSpec().flags("9").values("t");
+
+    @Override
+    public String name() {
+        return "kill";
+    }
+
+    @Override
+    public OptionSpec options() {
+        return options;
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"kill [-9] [-t seconds] <pid|process>...\tTerminate processes"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: kill [-9] [-t seconds] <pid|process>...",
+                "Terminate processes.",
+                "You can use either the PID (Process ID) or the binary name of the program.",
+                "Options:",
+                "  -9         - Kill immediately instead of asking the process to terminate",
+                "  -t seconds - Wait up to this long for the processes to exit, then kill the rest"
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        if (arguments.operands.isEmpty()) {
+            context.err.println("Missing argument for kill command.");
+            return USAGE;
+        }
+        long graceNanos = graceNanos(context, arguments);
+        if (graceNanos == -2) {
+            return USAGE;
+        }
+
+        int status = SUCCESS;
+        List<ProcessHandle> targets = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (String operand : arguments.operands) {
+            if (operand.isEmpty()) {
+                context.err.println("Invalid PID or process name: empty argument");
+                status = USAGE;
+                continue;
+            }
+            if (Character.isDigit(operand.charAt(0))) {
+                long pid;
+                try {
+                    pid = Long.parseLong(operand);
+                } catch (NumberFormatException e) {
+                    context.err.println("Invalid PID: " + operand);
+                    status = USAGE;
+                    continue;
+                }
+                ProcessHandle process = ProcessHandle.of(pid).orElse(null);
+                if (process == null) {
+                    context.err.println("No such process: " + pid);
+                    status = FAILURE;
+                    continue;
+                }
+                targets.add(process);
+            } else {
+                names.add(operand);
+            }
+        }
+
+        if (!names.isEmpty()) {
+            // Alle Namen in einem Durchlauf über die Prozessliste
+            List<ProcessInfo> all;
+            try {
+                all = ProcessInfo.all();
+            } catch (IOException e) {
+                context.err.println(e.getMessage());
+                return FAILURE;
+            }
+            for (String name : names) {
+                int found = 0;
+                for (ProcessInfo process : all) {
+                    if (process.name.equalsIgnoreCase(name)) {
+                        targets.add(process.handle);
+                        found++;
+                    }
+                }
+                if (found == 0) {
+                    context.err.println("No such process: " + name);
+                    status = FAILURE;
+                }
+            }
+        }
+
+        int result = terminate(context, targets, arguments.has('9'), graceNanos, true);
+        return status != SUCCESS ? status : result;
+    }
+
+    /**
+     * The value of {@code -t} in nanoseconds, -1 without it, or -2 if it is invalid
+     * (reported already).
+     */
+    static long graceNanos(CommandContext context, OptionSpec.Arguments arguments) {
+        String value = arguments.value('t');
+        if (value == null) {
+            return -1;
+        }
+        double seconds;
+        try {
+            seconds = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            seconds = -1;
+        }
+        if (!(seconds >= 0) || Double.isInfinite(seconds)) {
+            context.err.println("Invalid timeout: " + value);
+            return -2;
+        }
+        return (long) (seconds * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Signals all {@code processes} in one pass, then, with a grace time, waits for all of
+     * them at once on their {@link ProcessHandle#onExit()} futures and kills whatever is still
+     * running when it is over.
+     *
+     * @param force      kill immediately ({@code SIGKILL}) instead of asking to terminate
+     * @param graceNanos how long to wait for the processes to exit, or -1 not to wait
+     * @param verbose    report every process, not only the ones that could not be signalled
+     * @return {@link Command#SUCCESS} if every process was signalled (and has exited, when waiting)
+     */
+    static int terminate(CommandContext context, List<ProcessHandle> processes, boolean force, long graceNanos,
+                         boolean verbose) {
+        long self = ProcessHandle.current().pid();
+        int status = SUCCESS;
+        List<ProcessHandle> signalled = new ArrayList<>(processes.size());
+        List<CompletableFuture<ProcessHandle>> exits = new ArrayList<>(processes.size());
+        for (ProcessHandle process : processes) {
+            if (process.pid() == self) {
+                context.err.println("Cannot kill the terminal itself (PID " + self + "), use exit.");
+                status = FAILURE;
+                continue;
+            }
+            // false: keine Berechtigung oder der Prozess ist schon beendet
+            boolean sent = force ? process.destroyForcibly() : process.destroy();
+            if (!sent) {
+                context.err.println("Cannot kill process " + process.pid()
+                        + (process.isAlive() ? ": Operation not permitted" : ": No such process"));
+                status = FAILURE;
+                continue;
+            }
+            if (verbose) {
+                context.out.println((force ? "Killed" : "Terminating") + " process with PID: " + process.pid());
+            }
+            signalled.add(process);
+            if (graceNanos >= 0) {
+                exits.add(process.onExit());
+            }
+        }
+        if (graceNanos < 0 || signalled.isEmpty()) {
+            return status;
+        }
+
+        try {
+            CompletableFuture.allOf(exits.toArray(new CompletableFuture<?>[0])).get(graceNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Nicht alle sind rechtzeitig beendet; die übrigen werden unten erzwungen
+        } catch (ExecutionException e) {
+            context.err.println("Error waiting for processes: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            context.err.println("Interrupted while waiting for processes.");
+            return FAILURE;
+        }
+
+        int survivors = 0;
+        for (ProcessHandle process : signalled) {
+            if (process.isAlive()) {
+                survivors++;
+                if (force || !process.destroyForcibly()) {
+                    context.err.println("Process " + process.pid() + " did not exit.");
+                    status = FAILURE;
+                } else if (verbose) {
+                    context.out.println("Killed process with PID: " + process.pid() + " (did not exit in time)");
+                }
+            }
+        }
+        if (!verbose && survivors > 0 && !force) {
+            context.out.println("Killed " + survivors + " process(es) that did not exit in time.");
+        }
+        return status;
+    }
+}
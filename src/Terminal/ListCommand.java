@@ -0,0 +1,263 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ls}: lists directories, optionally in long format, recursively and sorted by time or size.
+ */
+final class ListCommand implements Command {
+    private static final DateTimeFormatter LAST_MODIFIED_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    /** How many errors {@link #printErrors} lists before it only counts the rest. */
+    private static final int MAX_ERRORS_SHOWN = 20;
+
+    private final OptionSpec options = new OptionSpec().flags("laRtSr");
+
+    @Override
+    public String name() {
+        return "ls";
+    }
+
+    @Override
+    public OptionSpec options() {
+        return options;
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{
+                "ls [options] [directory]\tList files and directories",
+                "ls -l [directory]\tList files and directories in long format",
+                "ls -a [directory]\tList all files and directories, including hidden ones",
+                "ls -R [directory]\tList files and directories recursively",
+                "ls -t [directory]\tList files and directories, sorted by modification time",
+                "ls -S [directory]\tList files and directories, sorted by size",
+                "ls -r [directory]\tReverse the sort order"
+        };
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: ls [options] [directory]",
+                "List files and directories.",
+                "Options:",
+                "  -l - List files and directories in long format (permissions, owner, group, size, time)",
+                "  -a - List all files and directories, including hidden ones",
+                "  -R - List files and directories recursively",
+                "  -t - List files and directories, sorted by modification time",
+                "  -S - List files and directories, sorted by size (largest first)",
+                "  -r - Reverse the sort order"
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        List<String> directories = arguments.operands;
+        if (directories.isEmpty()) {
+            directories = new ArrayList<>();
+            directories.add(context.directory().toString());
+        }
+
+        Comparator<FileInfo> order = listingOrder(arguments);
+        int status = SUCCESS;
+
+        for (String directory : directories) {
+            Path dir = context.resolve(directory);
+            if (MetadataCache.get().isDirectory(dir)) {
+                if (arguments.has('R')) {
+                    status |= listFilesRecursive(context, dir, arguments, order);
+                } else {
+                    try {
+                        // Ein stat pro Eintrag, danach wird nur noch auf den gelesenen Werten sortiert
+                        List<FileInfo> entries = new ArrayList<>();
+                        for (FileInfo entry : MetadataCache.get().list(dir)) {
+                            if (arguments.has('a') || !entry.name.startsWith(".")) {
+                                entries.add(entry);
+                            }
+                        }
+                        entries.sort(order);
+                        printListing(context.out, entries, arguments);
+                    } catch (IOException e) {
+                        context.err.println("Failed to list directory: " + e.getMessage());
+                        status = FAILURE;
+                    }
+                }
+            } else {
+                context.err.println("Directory not found: " + directory);
+                status = FAILURE;
+            }
+        }
+        return status;
+    }
+
+    private static Comparator<FileInfo> listingOrder(OptionSpec.Arguments arguments) {
+        Comparator<FileInfo> order = FileInfo.BY_NAME;
+        if (arguments.has('t')) {
+            order = FileInfo.BY_TIME;
+        } else if (arguments.has('S')) {
+            order = FileInfo.BY_SIZE;
+        }
+        return arguments.has('r') ? order.reversed() : order;
+    }
+
+    private static void printListing(TerminalOutput out, List<FileInfo> entries, OptionSpec.Arguments arguments) {
+        if (!arguments.has('l')) {
+            for (FileInfo entry : entries) {
+                out.println(entry.name);
+            }
+            return;
+        }
+
+        // Spaltenbreiten für Besitzer, Gruppe und Größe bestimmen
+        String[] owners = new String[entries.size()];
+        String[] groups = new String[entries.size()];
+        String[] sizes = new String[entries.size()];
+        int ownerWidth = 1;
+        int groupWidth = 1;
+        int sizeWidth = 1;
+        for (int i = 0; i < entries.size(); i++) {
+            FileInfo entry = entries.get(i);
+            owners[i] = entry.owner();
+            groups[i] = entry.group();
+            sizes[i] = getFileSize(entry.size());
+            ownerWidth = Math.max(ownerWidth, owners[i].length());
+            groupWidth = Math.max(groupWidth, groups[i].length());
+            sizeWidth = Math.max(sizeWidth, sizes[i].length());
+        }
+
+        String format = "%s %-" + ownerWidth + "s %-" + groupWidth + "s %" + sizeWidth + "s %s %s";
+        for (int i = 0; i < entries.size(); i++) {
+            FileInfo entry = entries.get(i);
+            out.printf(format, entry.permissions(), owners[i], groups[i], sizes[i],
+                    getLastModified(entry.lastModified()), entry.name);
+            if (entry.attributes.isSymbolicLink()) {
+                try {
+                    out.print(" -> " + Files.readSymbolicLink(entry.path));
+                } catch (IOException e) {
+                    // Ziel nicht lesbar, nur den Namen anzeigen
+                }
+            }
+            out.println();
+        }
+    }
+
+    /**
+     * @return {@link #FAILURE} if the directory or one below it could not be listed
+     */
+    private static int listFilesRecursive(CommandContext context, Path directory, OptionSpec.Arguments arguments,
+                                          Comparator<FileInfo> order) {
+        DirectoryWalker walker = new DirectoryWalker(Integer.MAX_VALUE, false, arguments.has('a'));
+        try {
+            return printRecursiveListing(context, walker.walk(directory), arguments, order, true);
+        } catch (IOException e) {
+            context.err.println("Failed to list directory: " + e.getMessage());
+            return FAILURE;
+        }
+    }
+
+    private static int printRecursiveListing(CommandContext context, DirectoryWalker.Node directory,
+                                              OptionSpec.Arguments arguments, Comparator<FileInfo> order,
+                                              boolean first) {
+        TerminalOutput out = context.out;
+        if (!first) {
+            out.println();
+        }
+        out.print(directory.path.toAbsolutePath().toString());
+        out.println(":");
+
+        int status = SUCCESS;
+        List<DirectoryWalker.Node> children = new ArrayList<>(directory.children());
+        if (directory.error() != null) {
+            context.err.println("Failed to list directory: " + directory.error());
+            status = FAILURE;
+        }
+        children.sort((a, b) -> order.compare(a.info, b.info));
+
+        // Erst den Inhalt des Verzeichnisses, danach die Unterverzeichnisse wie bei ls -R
+        List<FileInfo> entries = new ArrayList<>(children.size());
+        for (DirectoryWalker.Node child : children) {
+            entries.add(child.info);
+        }
+        printListing(out, entries, arguments);
+
+        for (DirectoryWalker.Node child : children) {
+            if (child.isDirectory()) {
+                status |= printRecursiveListing(context, child, arguments, order, false);
+            }
+        }
+        return status;
+    }
+
+    static String getFileSize(long bytes) {
+        String size = bytes + " B";
+
+        if (bytes >= 1024) {
+            double kilobytes = bytes / 1024.0;
+            size = String.format("%.2f KB", kilobytes);
+
+            if (kilobytes >= 1024) {
+                double megabytes = kilobytes / 1024.0;
+                size = String.format("%.2f MB", megabytes);
+
+                if (megabytes >= 1024) {
+                    double gigabytes = megabytes / 1024.0;
+                    size = String.format("%.2f GB", gigabytes);
+                }
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * {@code nanos} in seconds, at least one nanosecond so rates can be divided by it.
+     */
+    static double getSeconds(long nanos) {
+        return Math.max(nanos, 1) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * The rate of {@code bytes} in {@code nanos}, e.g. {@code "12.50 MB/s"}.
+     */
+    static String getThroughput(long bytes, long nanos) {
+        return getFileSize((long) (bytes / getSeconds(nanos))) + "/s";
+    }
+
+    /**
+     * Prints the errors a bulk operation collected to {@code err}, at most {@link #MAX_ERRORS_SHOWN}.
+     *
+     * @return {@link #SUCCESS} if there are none, otherwise {@link #FAILURE}
+     */
+    static int printErrors(CommandContext context, List<String> errors) {
+        return printErrors(context, errors.size() + " error(s):", errors);
+    }
+
+    static int printErrors(CommandContext context, String header, List<String> errors) {
+        if (errors.isEmpty()) {
+            return SUCCESS;
+        }
+        context.err.println(header);
+        for (int i = 0; i < errors.size() && i < MAX_ERRORS_SHOWN; i++) {
+            context.err.println("  " + errors.get(i));
+        }
+        if (errors.size() > MAX_ERRORS_SHOWN) {
+            context.err.println("  ... and " + (errors.size() - MAX_ERRORS_SHOWN) + " more");
+        }
+        return FAILURE;
+    }
+
+    private static String getLastModified(long millis) {
+        return LAST_MODIFIED_FORMAT.format(Instant.ofEpochMilli(millis));
+    }
+}
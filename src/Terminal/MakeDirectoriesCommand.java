@@ -0,0 +1,45 @@
+package Terminal;
+
+import java.io.File;
+
+/**
+ * {@code mkdirhier}: creates a directory together with all missing parents.
+ */
+final class MakeDirectoriesCommand implements Command {
+    @Override
+    public String name() {
+        return "mkdirhier";
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"mkdirhier [directory]\tCreate directories hierarchically"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{"Usage: mkdirhier [directory]", "Create directories hierarchically."};
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        if (arguments.operands.isEmpty()) {
+            context.err.println("Missing argument for mkdirhier command.");
+            return USAGE;
+        }
+
+        int status = SUCCESS;
+        for (String directory : arguments.operands) {
+            File newDirectory = context.resolve(directory).toFile();
+
+            if (newDirectory.mkdirs()) {
+                MetadataCache.get().invalidate(newDirectory.toPath());
+                context.out.println("Directory created: " + newDirectory.getAbsolutePath());
+            } else {
+                context.err.println("Failed to create directory: " + directory);
+                status = FAILURE;
+            }
+        }
+        return status;
+    }
+}
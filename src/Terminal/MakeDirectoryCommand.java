@@ -0,0 +1,59 @@
+package Terminal;
+
+import java.io.File;
+
+/**
+ * {@code mkdir}: creates directories; several names can also be given separated by commas.
+ */
+final class MakeDirectoryCommand implements Command {
+    @Override
+    public String name() {
+        return "mkdir";
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"mkdir [directory]\tCreate a new directory"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: mkdir directory[,directory...]...",
+                "Create a new directory."
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        if (arguments.operands.isEmpty()) {
+            context.err.println("Missing argument for mkdir command.");
+            return USAGE;
+        }
+
+        int status = SUCCESS;
+        for (String operand : arguments.operands) {
+            for (String dirName : operand.split(",")) {
+                if (dirName.trim().isEmpty()) {
+                    continue;
+                }
+                File newDirectory = context.resolve(dirName.trim()).toFile();
+
+                if (newDirectory.exists()) {
+                    context.err.println("Directory already exists: " + newDirectory.getAbsolutePath());
+                    status = FAILURE;
+                    continue;
+                }
+
+                if (newDirectory.mkdirs()) {
+                    MetadataCache.get().invalidate(newDirectory.toPath());
+                    context.out.println("Directory created: " + newDirectory.getAbsolutePath());
+                } else {
+                    context.err.println("Failed to create directory: " + dirName);
+                    status = FAILURE;
+                }
+            }
+        }
+        return status;
+    }
+}
@@ -0,0 +1,407 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process cache of directory listings and file attributes, keyed by absolute path.
+ * Every cached directory is registered with a {@link WatchService}; a daemon thread drops
+ * entries as soon as the file system reports a change. The cache is an LRU map bounded by
+ * the number of {@link FileInfo} objects it holds. Watches are bounded too, and also kept in
+ * LRU order: when the watch budget is used up, the least recently used directory loses its
+ * watch and with it its cached listing and the attributes of its children. Once the budget
+ * is full, a newly watched directory is the next one to go unless it is used again (only
+ * every {@value #FRONT_INSERTION_INTERVAL}th goes to the front), so walking a tree larger
+ * than the budget keeps most of it cached instead of evicting each directory just before
+ * it is needed again. Directories that cannot be watched are never cached, because nothing
+ * would tell us when they become stale.
+ */
+final class MetadataCache {
+    private static final int MAX_ENTRIES = 100_000;
+    private static final int MAX_WATCHED_DIRECTORIES = 4_096;
+    private static final int FRONT_INSERTION_INTERVAL = 32;
+
+    private static MetadataCache instance;
+
+    private final int maxEntries;
+    private final int maxWatchedDirectories;
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final LinkedHashMap<Path, WatchKey> watchKeys = new LinkedHashMap<>(256, 0.75f, true);
+    private final WatchService watchService;
+    // Zuletzt bei vollem Budget beobachtetes Verzeichnis: wird als nächstes verdrängt, wenn es nicht wieder gebraucht wird
+    private Path nextVictim;
+    private long watchInsertions;
+    private int weight;
+    // Zählt jede Invalidierung; ein Ergebnis wird nur gespeichert, wenn sich der Wert beim Lesen nicht geändert hat
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    private static final class Entry {
+        List<FileInfo> listing;
+        FileInfo info;
+        // Watch des Elternordners, der info aktuell hält; nach dessen Verdrängung ungültig
+        WatchKey infoWatch;
+
+        int weight() {
+            return (listing == null ? 0 : listing.size()) + (info == null ? 0 : 1);
+        }
+    }
+
+    private MetadataCache() {
+        this(MAX_ENTRIES, MAX_WATCHED_DIRECTORIES);
+    }
+
+    /**
+     * A separate cache with its own budgets and watcher thread; commands use {@link #get()}.
+     */
+    MetadataCache(int maxEntries, int maxWatchedDirectories) {
+        this.maxEntries = maxEntries;
+        this.maxWatchedDirectories = maxWatchedDirectories;
+        WatchService service;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            service = null;
+        }
+        watchService = service;
+
+        if (watchService != null) {
+            Thread watcher = new Thread(this::processEvents, "metadata-cache-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+    }
+
+    static synchronized MetadataCache get() {
+        if (instance == null) {
+            instance = new MetadataCache();
+        }
+        return instance;
+    }
+
+    /**
+     * All entries of a directory, including hidden ones, in directory order. The returned
+     * list must not be modified.
+     */
+    List<FileInfo> list(Path directory) throws IOException {
+        Path key = directory.toAbsolutePath().normalize();
+        long startGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.listing != null) {
+                hits++;
+                touch(key);
+                return entry.listing;
+            }
+            misses++;
+            startGeneration = generation;
+        }
+
+        // Erst beobachten, dann lesen: so geht keine Änderung dazwischen verloren
+        WatchKey watchKey = watch(key);
+        List<FileInfo> listing = Collections.unmodifiableList(FileInfo.list(key, true));
+
+        if (watchKey != null) {
+            synchronized (this) {
+                // Ein inzwischen verdrängter Watch meldet keine Änderungen mehr
+                if (generation == startGeneration && watchKey.isValid() && listing.size() < maxEntries / 2) {
+                    Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+                    weight -= entry.weight();
+                    entry.listing = listing;
+                    weight += entry.weight();
+                    evict();
+                }
+            }
+        }
+        return listing;
+    }
+
+    /**
+     * The attributes of a single path without following a final symbolic link,
+     * served from the parent's cached listing when possible.
+     */
+    FileInfo info(Path path) throws IOException {
+        Path key = path.toAbsolutePath().normalize();
+        Path parent = key.getParent();
+        long startGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.info != null) {
+                if (entry.infoWatch.isValid()) {
+                    hits++;
+                    touch(parent);
+                    return entry.info;
+                }
+                // Der Watch des Elternordners wurde verdrängt
+                weight -= 1;
+                entry.info = null;
+                entry.infoWatch = null;
+                dropIfEmpty(key, entry);
+            }
+            Entry parentEntry = parent == null ? null : entries.get(parent);
+            if (parentEntry != null && parentEntry.listing != null) {
+                hits++;
+                touch(parent);
+                String name = key.getFileName().toString();
+                for (FileInfo info : parentEntry.listing) {
+                    if (info.name.equals(name)) {
+                        return info;
+                    }
+                }
+                // Der Elternordner ist aktuell und kennt den Namen nicht
+                throw new NoSuchFileException(key.toString());
+            }
+            misses++;
+            startGeneration = generation;
+        }
+
+        // Änderungen an einem Eintrag meldet der Watcher des Elternordners
+        WatchKey watchKey = parent == null ? null : watch(parent);
+        FileInfo info = FileInfo.read(key);
+
+        if (watchKey != null) {
+            synchronized (this) {
+                if (generation == startGeneration && watchKey.isValid()) {
+                    Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+                    weight -= entry.weight();
+                    entry.info = info;
+                    entry.infoWatch = watchKey;
+                    weight += entry.weight();
+                    evict();
+                }
+            }
+        }
+        return info;
+    }
+
+    /**
+     * True if the path is a directory, following symbolic links like {@link Files#isDirectory}.
+     */
+    boolean isDirectory(Path path) {
+        try {
+            FileInfo info = info(path);
+            if (info.attributes.isSymbolicLink()) {
+                return Files.isDirectory(path);
+            }
+            return info.isDirectory();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Drops everything cached about {@code path}, its listing and the listing of its parent.
+     * Commands that change the file system call this so their own changes show up at once,
+     * without waiting for the watch event.
+     */
+    synchronized void invalidate(Path path) {
+        Path key = path.toAbsolutePath().normalize();
+        generation++;
+        invalidations++;
+        remove(key);
+        Path parent = key.getParent();
+        if (parent != null) {
+            remove(parent);
+            // Die Änderungszeit des Elternordners steht in der Liste des Großelternordners
+            if (parent.getParent() != null) {
+                Entry grandParent = entries.get(parent.getParent());
+                if (grandParent != null && grandParent.listing != null) {
+                    weight -= grandParent.listing.size();
+                    grandParent.listing = null;
+                    dropIfEmpty(parent.getParent(), grandParent);
+                }
+            }
+        }
+    }
+
+    synchronized void clear() {
+        generation++;
+        invalidations += entries.size();
+        entries.clear();
+        weight = 0;
+        for (WatchKey watchKey : watchKeys.values()) {
+            watchKey.cancel();
+        }
+        watchKeys.clear();
+        nextVictim = null;
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized int watchedDirectories() {
+        return watchKeys.size();
+    }
+
+    synchronized String stats() {
+        long lookups = hits + misses;
+        return String.format("Entries:       %d / %d (%d paths)%n"
+                        + "Watched dirs:  %d%s%n"
+                        + "Hits:          %d%n"
+                        + "Misses:        %d%n"
+                        + "Hit rate:      %.1f%%%n"
+                        + "Evictions:     %d%n"
+                        + "Invalidations: %d",
+                weight, maxEntries, entries.size(),
+                watchKeys.size(), watchService == null ? " (watching unsupported, cache disabled)" : "",
+                hits, misses, lookups == 0 ? 0.0 : 100.0 * hits / lookups, evictions, invalidations);
+    }
+
+    /**
+     * Registers {@code directory} with the watch service unless it already is, and marks it as
+     * recently used.
+     *
+     * @return its watch key, or {@code null} if it cannot be watched
+     */
+    private WatchKey watch(Path directory) {
+        if (watchService == null) {
+            return null;
+        }
+        synchronized (this) {
+            WatchKey watchKey = touch(directory);
+            if (watchKey != null) {
+                return watchKey;
+            }
+        }
+        WatchKey watchKey;
+        try {
+            watchKey = directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | UnsupportedOperationException e) {
+            return null;
+        }
+        synchronized (this) {
+            if (watchKeys.containsKey(directory)) {
+                // Ein anderer Thread war schneller; register liefert denselben Schlüssel
+                return touch(directory);
+            }
+            boolean full = watchKeys.size() >= maxWatchedDirectories;
+            while (watchKeys.size() >= maxWatchedDirectories) {
+                // Watches sind begrenzt (inotify): nur den am längsten ungenutzten aufgeben
+                Path victim = nextVictim != null && watchKeys.containsKey(nextVictim)
+                        ? nextVictim : watchKeys.keySet().iterator().next();
+                unwatch(victim);
+            }
+            watchKeys.put(directory, watchKey);
+            nextVictim = full && ++watchInsertions % FRONT_INSERTION_INTERVAL != 0 ? directory : null;
+            return watchKey;
+        }
+    }
+
+    /**
+     * Marks a watched directory as recently used.
+     *
+     * @return its watch key, or {@code null} if it is not watched
+     */
+    private WatchKey touch(Path directory) {
+        WatchKey watchKey = watchKeys.get(directory);
+        if (watchKey != null && directory.equals(nextVictim)) {
+            nextVictim = null;
+        }
+        return watchKey;
+    }
+
+    /**
+     * Cancels the watch of {@code directory} and drops its listing; cached attributes of its
+     * children notice the cancelled key when they are next read.
+     */
+    private void unwatch(Path directory) {
+        watchKeys.remove(directory).cancel();
+        if (directory.equals(nextVictim)) {
+            nextVictim = null;
+        }
+        Entry entry = entries.get(directory);
+        if (entry != null && entry.listing != null) {
+            weight -= entry.listing.size();
+            entry.listing = null;
+            dropIfEmpty(directory, entry);
+        }
+        evictions++;
+    }
+
+    private void processEvents() {
+        while (true) {
+            WatchKey watchKey;
+            try {
+                watchKey = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path directory = (Path) watchKey.watchable();
+            for (WatchEvent<?> event : watchKey.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    invalidateChildren(directory);
+                } else {
+                    invalidate(directory.resolve((Path) event.context()));
+                }
+            }
+
+            if (!watchKey.reset()) {
+                // Verzeichnis existiert nicht mehr, oder der Watch wurde verdrängt (dann ist schon alles entfernt)
+                boolean removed;
+                synchronized (this) {
+                    removed = watchKeys.remove(directory, watchKey);
+                }
+                if (removed) {
+                    invalidate(directory);
+                }
+            }
+        }
+    }
+
+    private synchronized void invalidateChildren(Path directory) {
+        invalidate(directory);
+        Iterator<Map.Entry<Path, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, Entry> cached = iterator.next();
+            if (directory.equals(cached.getKey().getParent())) {
+                weight -= cached.getValue().weight();
+                iterator.remove();
+            }
+        }
+    }
+
+    private void remove(Path key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight();
+        }
+    }
+
+    private void dropIfEmpty(Path key, Entry entry) {
+        if (entry.listing == null && entry.info == null) {
+            entries.remove(key);
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Path, Entry>> iterator = entries.entrySet().iterator();
+        while (weight > maxEntries && iterator.hasNext()) {
+            Map.Entry<Path, Entry> eldest = iterator.next();
+            weight -= eldest.getValue().weight();
+            iterator.remove();
+            evictions++;
+        }
+    }
+}
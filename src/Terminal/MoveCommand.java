@@ -0,0 +1,105 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * {@code mv}: moves or renames files and directories with the {@link MoveEngine}.
+ */
+final class MoveCommand implements Command {
+
+    @Override
+    public String name() {
+        return "mv";
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{
+                "mv [source] [dest]\tMove/rename a file or directory",
+                "mv [source...] [directory]\tMove several files or directories into a directory"
+        };
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: mv [source] [dest]",
+                "       mv [source...] [directory]",
+                "Move/rename a file or directory. If the last argument is an existing directory,",
+                "all sources are moved into it. Existing files are not overwritten.",
+                "Within one file system this is an atomic rename; across file systems the data is",
+                "copied to a temporary name, renamed into place and then deleted at the source."
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        List<String> operands = arguments.operands;
+        if (operands.size() < 2) {
+            context.err.println("Missing argument(s) for mv command.");
+            return USAGE;
+        }
+
+        Path destination = context.resolve(operands.get(operands.size() - 1));
+        boolean intoDirectory = Files.isDirectory(destination);
+        if (operands.size() > 2 && !intoDirectory) {
+            context.err.println("Target is not a directory: " + operands.get(operands.size() - 1));
+            return USAGE;
+        }
+
+        int status = SUCCESS;
+        int moved = 0;
+        long copiedBytes = 0;
+        long copyNanos = 0;
+
+        for (String source : operands.subList(0, operands.size() - 1)) {
+            Path sourcePath = context.resolve(source);
+            if (!Files.exists(sourcePath, LinkOption.NOFOLLOW_LINKS)) {
+                context.err.println("Source file or directory not found: " + source);
+                status = FAILURE;
+                continue;
+            }
+            Path targetPath = intoDirectory ? destination.resolve(sourcePath.getFileName()) : destination;
+
+            MoveEngine.Result result;
+            try {
+                result = MoveEngine.move(sourcePath, targetPath);
+            } catch (FileAlreadyExistsException e) {
+                context.err.println("Target already exists: " + targetPath);
+                status = FAILURE;
+                continue;
+            } catch (IOException e) {
+                context.err.println("Failed to move/rename " + source + ": " + e.getMessage());
+                status = FAILURE;
+                continue;
+            }
+
+            moved++;
+            if (result.renamed) {
+                context.out.println("File or directory moved/renamed: " + sourcePath + " -> " + targetPath);
+            } else {
+                copiedBytes += result.bytes;
+                copyNanos += result.nanos;
+                context.io.addRead(result.bytes);
+                context.io.addWritten(result.bytes);
+                context.out.printf("File or directory moved: %s -> %s (copied %s across file systems in %.2f s, %s)%n",
+                        sourcePath, targetPath, ListCommand.getFileSize(result.bytes), ListCommand.getSeconds(result.nanos),
+                        ListCommand.getThroughput(result.bytes, result.nanos));
+            }
+            status |= ListCommand.printErrors(context,
+                    "Moved, but " + result.errors.size() + " error(s) removing the source:", result.errors);
+        }
+
+        if (operands.size() > 2 && copyNanos > 0) {
+            context.out.printf("Moved %d item(s), %s copied in %.2f s (%s)%n", moved,
+                    ListCommand.getFileSize(copiedBytes), ListCommand.getSeconds(copyNanos),
+                    ListCommand.getThroughput(copiedBytes, copyNanos));
+        }
+        return status;
+    }
+}
@@ -0,0 +1,88 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves files and directories. Within one file system that is a single atomic rename. Across
+ * file systems the source is copied with the {@link CopyEngine} (attributes preserved) to a
+ * hidden temporary name next to the target, renamed into place, and only then deleted with
+ * the {@link DeleteEngine}. An interruption before the rename leaves the source untouched and
+ * at most the temporary copy behind, which the next move to the same target removes; after the
+ * rename the data exists completely in at least one place.
+ */
+final class MoveEngine {
+    private static final String TEMPORARY_SUFFIX = ".mv-partial";
+
+    private MoveEngine() {
+    }
+
+    static final class Result {
+        /** True if the move was a rename, false if the data had to be copied. */
+        boolean renamed;
+        long bytes;
+        long nanos;
+        /** Problems deleting the source after a successful copy; the target is complete. */
+        final List<String> errors = new ArrayList<>();
+    }
+
+    /**
+     * Moves {@code source} to {@code target}, which must not exist yet.
+     */
+    static Result move(Path source, Path target) throws IOException {
+        long start = System.nanoTime();
+        Result result = new Result();
+
+        if (Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+            // ATOMIC_MOVE würde eine vorhandene Datei stillschweigend ersetzen
+            throw new FileAlreadyExistsException(target.toString());
+        }
+        Path absoluteSource = source.toAbsolutePath().normalize();
+        if (target.toAbsolutePath().normalize().startsWith(absoluteSource)) {
+            throw new IOException("Cannot move a directory into itself: " + target);
+        }
+
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            result.renamed = true;
+        } catch (AtomicMoveNotSupportedException e) {
+            copyThenDelete(source, target, result);
+        }
+
+        MetadataCache.get().invalidate(source);
+        MetadataCache.get().invalidate(target);
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private static void copyThenDelete(Path source, Path target, Result result) throws IOException {
+        Path temporary = target.resolveSibling("." + target.getFileName() + TEMPORARY_SUFFIX);
+        if (Files.exists(temporary, LinkOption.NOFOLLOW_LINKS)) {
+            // Rest eines abgebrochenen Verschiebens
+            DeleteEngine.delete(temporary);
+        }
+
+        CopyEngine.Options options = new CopyEngine.Options();
+        options.preserve = true;
+        CopyEngine.Result copy = CopyEngine.copy(source, temporary, options);
+        if (!copy.errors.isEmpty()) {
+            // Quelle bleibt unverändert, die halbe Kopie wird verworfen
+            DeleteEngine.delete(temporary);
+            throw new IOException(copy.errors.size() + " file(s) could not be copied, first: " + copy.errors.get(0));
+        }
+        result.bytes = copy.bytes;
+
+        // Im Zieldateisystem ist das Umbenennen atomar
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+
+        DeleteEngine.Result delete = DeleteEngine.delete(source);
+        result.errors.addAll(delete.errors);
+    }
+}
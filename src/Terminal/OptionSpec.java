@@ -0,0 +1,195 @@
+package Terminal;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The options a command accepts, declared once when the command is created and used
+ * to parse every invocation getopt-style: single-letter flags can be combined
+ * ({@code -la}), a value follows its letter directly or as the next word
+ * ({@code -e foo}, {@code -efoo}), long options take {@code --name=value} or
+ * {@code --name value}, and {@code --} ends the options. Options and operands may be mixed.
+ * A lone {@code -} is an operand.
+ */
+final class OptionSpec {
+    /**
+     * No option parsing at all: every word is an operand (for {@code echo} and the like).
+     */
+    static final OptionSpec NONE = new OptionSpec(false);
+
+    private static final byte FLAG = 1;
+    private static final byte VALUE = 2;
+
+    private final boolean parseOptions;
+    private final byte[] shortOptions = new byte[128];
+    private final Set<String> longFlags = new HashSet<>();
+    private final Set<String> longValues = new HashSet<>();
+
+    OptionSpec() {
+        this(true);
+    }
+
+    private OptionSpec(boolean parseOptions) {
+        this.parseOptions = parseOptions;
+    }
+
+    /**
+     * Options without a value, one letter each.
+     */
+    OptionSpec flags(String letters) {
+        for (int i = 0; i < letters.length(); i++) {
+            shortOptions[letters.charAt(i)] = FLAG;
+        }
+        return this;
+    }
+
+    /**
+     * Options that take a value, one letter each.
+     */
+    OptionSpec values(String letters) {
+        for (int i = 0; i < letters.length(); i++) {
+            shortOptions[letters.charAt(i)] = VALUE;
+        }
+        return this;
+    }
+
+    OptionSpec longFlags(String... names) {
+        for (String name : names) {
+            longFlags.add(name);
+        }
+        return this;
+    }
+
+    OptionSpec longValues(String... names) {
+        for (String name : names) {
+            longValues.add(name);
+        }
+        return this;
+    }
+
+    /**
+     * Parses {@code words} from index {@code from} on.
+     *
+     * @throws IllegalArgumentException for unknown options and missing values,
+     *                                  with a message naming {@code command}
+     */
+    Arguments parse(String command, List<String> words, int from) {
+        Arguments arguments = new Arguments();
+        boolean optionsEnded = !parseOptions;
+
+        for (int i = from; i < words.size(); i++) {
+            String word = words.get(i);
+            if (optionsEnded || word.length() < 2 || word.charAt(0) != '-') {
+                arguments.operands.add(word);
+            } else if (word.equals("--")) {
+                optionsEnded = true;
+            } else if (word.startsWith("--")) {
+                int equals = word.indexOf('=');
+                String name = word.substring(2, equals < 0 ? word.length() : equals);
+                if (longFlags.contains(name) && equals < 0) {
+                    arguments.addFlag(name);
+                } else if (longValues.contains(name)) {
+                    String value;
+                    if (equals >= 0) {
+                        value = word.substring(equals + 1);
+                    } else if (i + 1 < words.size()) {
+                        value = words.get(++i);
+                    } else {
+                        throw new IllegalArgumentException("Missing argument for " + command + " --" + name);
+                    }
+                    arguments.addValue(name, value);
+                } else {
+                    throw new IllegalArgumentException("Invalid option for " + command + ": --" + name);
+                }
+            } else {
+                for (int j = 1; j < word.length(); j++) {
+                    char option = word.charAt(j);
+                    byte kind = option < 128 ? shortOptions[option] : 0;
+                    if (kind == FLAG) {
+                        arguments.addFlag(String.valueOf(option));
+                    } else if (kind == VALUE) {
+                        // Der Wert ist der Rest des Worts oder das nächste Wort
+                        String value;
+                        if (j + 1 < word.length()) {
+                            value = word.substring(j + 1);
+                        } else if (i + 1 < words.size()) {
+                            value = words.get(++i);
+                        } else {
+                            throw new IllegalArgumentException("Missing argument for " + command + " -" + option);
+                        }
+                        arguments.addValue(String.valueOf(option), value);
+                        break;
+                    } else {
+                        throw new IllegalArgumentException("Invalid option for " + command + ": -" + option);
+                    }
+                }
+            }
+        }
+        return arguments;
+    }
+
+    /**
+     * The result of parsing one command line against an {@link OptionSpec}.
+     */
+    static final class Arguments {
+        private final Set<String> flags = new HashSet<>();
+        private final List<String[]> values = new ArrayList<>();
+        final List<String> operands = new ArrayList<>();
+
+        private void addFlag(String name) {
+            flags.add(name);
+        }
+
+        private void addValue(String name, String value) {
+            flags.add(name);
+            values.add(new String[]{name, value});
+        }
+
+        boolean has(char option) {
+            return flags.contains(String.valueOf(option));
+        }
+
+        boolean has(String longOption) {
+            return flags.contains(longOption);
+        }
+
+        /**
+         * The last value given for the option, or {@code null}.
+         */
+        String value(char option) {
+            List<String> all = values(String.valueOf(option));
+            return all.isEmpty() ? null : all.get(all.size() - 1);
+        }
+
+        List<String> values(char option) {
+            return values(String.valueOf(option));
+        }
+
+        /**
+         * All values of a (short or long) option in command line order.
+         */
+        List<String> values(String option) {
+            List<String> result = new ArrayList<>();
+            for (String[] value : values) {
+                if (value[0].equals(option)) {
+                    result.add(value[1]);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * The option letters and values in command line order, as {name, value} pairs;
+         * for commands where the order of different options matters.
+         */
+        List<String[]> orderedValues() {
+            return values;
+        }
+
+        String operand(int index) {
+            return index < operands.size() ? operands.get(index) : null;
+        }
+    }
+}
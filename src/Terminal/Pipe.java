@@ -0,0 +1,154 @@
+package Terminal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * An in-memory pipe between two stages of a {@link Pipeline}. Whatever the writing stage
+ * outputs is cut into chunks of at most {@value #CHUNK_SIZE} bytes and handed over through
+ * a queue of at most {@value #CAPACITY} chunks, so a fast producer blocks until the consumer
+ * catches up and a pipe never holds more than a megabyte. When the reading stage stops early
+ * (like {@code head}) and closes its end, the writer's next write fails with a
+ * {@link BrokenPipeException}, which ends the producing stage as SIGPIPE would.
+ */
+final class Pipe {
+    static final int CHUNK_SIZE = 64 * 1024;
+    private static final int CAPACITY = 16;
+    private static final byte[] END = new byte[0];
+
+    private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(CAPACITY);
+    private final Sink sink = new Sink();
+    private final Source source = new Source();
+    private volatile boolean readerClosed;
+
+    /**
+     * Thrown on writes after the reading end has been closed.
+     */
+    static final class BrokenPipeException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        BrokenPipeException() {
+            super("Broken pipe");
+        }
+    }
+
+    /**
+     * The writing end; closing it signals the end of the data to the reader.
+     */
+    WritableByteChannel sink() {
+        return sink;
+    }
+
+    /**
+     * The reading end; closing it before the end makes further writes fail.
+     */
+    ReadableByteChannel source() {
+        return source;
+    }
+
+    static boolean isBrokenPipe(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BrokenPipeException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void put(byte[] chunk) throws IOException {
+        try {
+            chunks.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing to a pipe");
+        }
+    }
+
+    private final class Sink implements WritableByteChannel {
+        private boolean open = true;
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+            int length = source.remaining();
+            while (source.hasRemaining()) {
+                if (readerClosed) {
+                    throw new BrokenPipeException();
+                }
+                // Große Puffer (z.B. gemappte Dateien) in Stücke teilen, damit der Speicher begrenzt bleibt
+                byte[] chunk = new byte[Math.min(source.remaining(), CHUNK_SIZE)];
+                source.get(chunk);
+                put(chunk);
+            }
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (open) {
+                open = false;
+                if (!readerClosed) {
+                    put(END);
+                }
+            }
+        }
+    }
+
+    private final class Source implements ReadableByteChannel {
+        private byte[] current;
+        private int offset;
+        private boolean ended;
+
+        @Override
+        public int read(ByteBuffer target) throws IOException {
+            if (readerClosed) {
+                throw new ClosedChannelException();
+            }
+            if (ended) {
+                return -1;
+            }
+            if (current == null || offset == current.length) {
+                try {
+                    current = chunks.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while reading from a pipe");
+                }
+                offset = 0;
+                if (current == END) {
+                    ended = true;
+                    return -1;
+                }
+            }
+            int length = Math.min(target.remaining(), current.length - offset);
+            target.put(current, offset, length);
+            offset += length;
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !readerClosed;
+        }
+
+        @Override
+        public void close() {
+            readerClosed = true;
+            // Einen blockierten Schreiber freigeben; er scheitert beim nächsten Schreiben
+            chunks.clear();
+        }
+    }
+}
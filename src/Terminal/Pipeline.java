@@ -0,0 +1,248 @@
+package Terminal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channel;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a command line that may consist of several commands joined by {@code |}. All stages
+ * run at the same time, each stage's output feeding the next through a bounded {@link Pipe}.
+ * The last stage runs on the calling thread and writes to the caller's output; the others
+ * run on threads of their own. The exit status is the last stage's, as in a POSIX shell.
+ * When a stage ends, its input is closed, so a stage in front of one that stopped reading
+ * early ends on its next write.
+ * <p>
+ * Each stage may redirect its output and error output to files ({@code >}, {@code >>},
+ * {@code 2>}, {@code 2>>}) or its error output to its output ({@code 2>&1}), applied from
+ * left to right. Files are written through their {@link FileChannel} with a large buffer.
+ */
+final class Pipeline {
+    private static final int ERROR_BUFFER_SIZE = 8 * 1024;
+    private static final int FILE_BUFFER_SIZE = 1024 * 1024;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    // Stufen blockieren auf ihren Pipes, deshalb eigene Threads statt des IoPool
+    private static final ExecutorService STAGES = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "pipeline-stage-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Pipeline() {
+    }
+
+    /**
+     * One command of the pipeline with its redirections taken out of the words.
+     */
+    private static final class Stage {
+        final List<String> words = new ArrayList<>();
+        /** Operator and file name pairs in command line order. */
+        final List<String[]> redirections = new ArrayList<>();
+        /** Outputs opened for the redirections, closed when the stage ends, and their paths. */
+        final List<TerminalOutput> files = new ArrayList<>();
+        final List<Path> paths = new ArrayList<>();
+    }
+
+    /**
+     * Runs the command line {@code words} as split by the {@link CommandLexer}.
+     *
+     * @throws IllegalArgumentException if a stage is empty, as in {@code ls |} or {@code | wc},
+     *                                  or a redirection has no file name
+     */
+    static int execute(CommandRegistry registry, CommandContext context, List<String> words) throws IOException {
+        List<Stage> stages = parse(words);
+
+        List<Future<Integer>> upstream = new ArrayList<>(stages.size() - 1);
+        Pipe previous = null;
+        try {
+            for (int i = 0; i < stages.size() - 1; i++) {
+                Pipe pipe = new Pipe();
+                TerminalOutput pipeOutput = new TerminalOutput(pipe.sink(), Pipe.CHUNK_SIZE);
+                Stage stage = stages.get(i);
+                CommandContext producer = new CommandContext(context.session,
+                        previous == null ? context.in : previous.source(),
+                        pipeOutput, context.err.share(ERROR_BUFFER_SIZE), new IoCounter(context.io));
+                upstream.add(STAGES.submit(() -> runStage(registry, producer, pipeOutput, stage)));
+                previous = pipe;
+            }
+
+            Stage last = stages.get(stages.size() - 1);
+            CommandContext consumer = new CommandContext(context.session,
+                    previous == null ? context.in : previous.source(), context.out, context.err, new IoCounter(context.io));
+            try {
+                CommandContext redirected = redirect(consumer, last);
+                return redirected == null ? Command.FAILURE : registry.execute(redirected, last.words);
+            } finally {
+                closeFiles(last, context.err);
+            }
+        } finally {
+            if (previous != null) {
+                // Vorgelagerte Stufen beenden, falls die letzte nicht alles gelesen hat
+                closeQuietly(previous.source());
+            }
+            awaitAll(upstream);
+        }
+    }
+
+    private static List<Stage> parse(List<String> words) {
+        List<Stage> stages = new ArrayList<>();
+        Stage stage = new Stage();
+        for (int i = 0; i <= words.size(); i++) {
+            String word = i < words.size() ? words.get(i) : null;
+            if (word == null || word == CommandLexer.PIPE) {
+                if (stage.words.isEmpty()) {
+                    throw new IllegalArgumentException("Syntax error: missing command before or after '|'");
+                }
+                stages.add(stage);
+                stage = new Stage();
+            } else if (word == CommandLexer.ERR_TO_OUT) {
+                stage.redirections.add(new String[]{word, null});
+            } else if (CommandLexer.isRedirection(word)) {
+                String file = i + 1 < words.size() ? words.get(i + 1) : null;
+                if (file == null || file == CommandLexer.PIPE || CommandLexer.isRedirection(file)) {
+                    throw new IllegalArgumentException("Syntax error: missing file name after '" + word + "'");
+                }
+                stage.redirections.add(new String[]{word, file});
+                i++;
+            } else {
+                stage.words.add(word);
+            }
+        }
+        return stages;
+    }
+
+    /**
+     * Applies the redirections of {@code stage} to {@code context}.
+     *
+     * @return the context to run the stage with, or {@code null} if a file could not be
+     * opened; the error has been reported then
+     */
+    private static CommandContext redirect(CommandContext context, Stage stage) {
+        if (stage.redirections.isEmpty()) {
+            return context;
+        }
+        TerminalOutput out = context.out;
+        TerminalOutput err = context.err;
+        for (String[] redirection : stage.redirections) {
+            String operator = redirection[0];
+            if (operator == CommandLexer.ERR_TO_OUT) {
+                err = out;
+                continue;
+            }
+
+            boolean append = operator == CommandLexer.APPEND_OUT || operator == CommandLexer.APPEND_ERR;
+            Path file = context.resolve(redirection[1]);
+            TerminalOutput output;
+            try {
+                FileChannel channel = append
+                        ? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+                        : FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                output = new TerminalOutput(channel, FILE_BUFFER_SIZE);
+            } catch (IOException e) {
+                context.err.println("Cannot redirect to " + redirection[1] + ": " + describe(e));
+                return null;
+            }
+            stage.files.add(output);
+            stage.paths.add(file);
+            if (operator == CommandLexer.REDIRECT_OUT || operator == CommandLexer.APPEND_OUT) {
+                out = output;
+            } else {
+                err = output;
+            }
+        }
+        return new CommandContext(context, out, err);
+    }
+
+    /**
+     * Runs one stage that is not the last and reports its errors itself, since nobody
+     * waits for its exceptions.
+     */
+    private static int runStage(CommandRegistry registry, CommandContext context, TerminalOutput pipeOutput,
+                                Stage stage) {
+        int status;
+        CommandContext redirected = redirect(context, stage);
+        try {
+            status = redirected == null ? Command.FAILURE : registry.execute(redirected, stage.words);
+        } catch (IOException | UncheckedIOException e) {
+            if (!Pipe.isBrokenPipe(e)) {
+                context.err.println("Error: " + e.getMessage());
+            }
+            status = Command.FAILURE;
+        } catch (IllegalArgumentException e) {
+            context.err.println(e.getMessage());
+            status = Command.USAGE;
+        } catch (RuntimeException e) {
+            context.err.println("Error: " + e);
+            status = Command.FAILURE;
+        }
+
+        closeFiles(stage, context.err);
+        try {
+            // Gibt das Ende der Daten an die nächste Stufe weiter, auch wenn die Ausgabe umgeleitet war
+            pipeOutput.close();
+        } catch (UncheckedIOException e) {
+            // Die nächste Stufe hat schon aufgehört zu lesen
+        }
+        closeQuietly(context.in);
+        context.err.flush();
+        return status;
+    }
+
+    private static void closeFiles(Stage stage, TerminalOutput err) {
+        for (int i = 0; i < stage.files.size(); i++) {
+            try {
+                stage.files.get(i).close();
+            } catch (UncheckedIOException e) {
+                // z.B. Platte voll beim letzten Schreiben
+                err.println("Error writing redirected output: " + e.getCause().getMessage());
+            }
+            MetadataCache.get().invalidate(stage.paths.get(i));
+        }
+    }
+
+    private static String describe(IOException e) {
+        if (e instanceof NoSuchFileException) {
+            return "No such file or directory";
+        }
+        if (e instanceof AccessDeniedException) {
+            return "Permission denied";
+        }
+        return e.getMessage();
+    }
+
+    private static void awaitAll(List<Future<Integer>> stages) throws IOException {
+        for (Future<Integer> stage : stages) {
+            try {
+                stage.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the pipeline");
+            } catch (ExecutionException e) {
+                throw new IOException("Pipeline stage failed: " + e.getCause(), e.getCause());
+            }
+        }
+    }
+
+    private static void closeQuietly(Channel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
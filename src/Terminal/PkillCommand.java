@@ -0,0 +1,104 @@
+package Terminal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * {@code pkill}: terminates every process whose name matches a regular expression,
+ * signalling all of them in one pass.
+ */
+final class PkillCommand implements Command {
+    private final OptionSpec options = new OptionSpec().flags("9fvx").values("tu");
+
+    @Override
+    public String name() {
+        return "pkill";
+    }
+
+    @Override
+    public OptionSpec options() {
+        return options;
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"pkill [-9fvx] [-u user] [-t seconds] pattern\tTerminate processes by name"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: pkill [-9fvx] [-u user] [-t seconds] pattern",
+                "Terminate all processes whose program name matches the pattern",
+                "(regular expression, case-insensitive). See ps for what would match.",
+                "Options:",
+                "  -9         - Kill immediately instead of asking the processes to terminate",
+                "  -f         - Match the full command line with arguments",
+                "  -x         - The pattern must match the whole name",
+                "  -u user    - Only processes of this user (can be repeated)",
+                "  -t seconds - Wait up to this long for the processes to exit, then kill the rest",
+                "  -v         - Report every process"
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        if (arguments.operands.isEmpty()) {
+            context.err.println("Missing pattern for pkill command.");
+            return USAGE;
+        }
+        if (String.join("", arguments.operands).isEmpty()) {
+            // Ein leeres Muster passt auf jeden Prozess
+            context.err.println("Invalid pattern for pkill: empty pattern");
+            return USAGE;
+        }
+        long graceNanos = KillCommand.graceNanos(context, arguments);
+        if (graceNanos == -2) {
+            return USAGE;
+        }
+        Pattern pattern;
+        try {
+            pattern = Pattern.compile(String.join(" ", arguments.operands), Pattern.CASE_INSENSITIVE);
+        } catch (PatternSyntaxException e) {
+            context.err.println("Invalid pattern: " + e.getDescription());
+            return USAGE;
+        }
+
+        List<ProcessInfo> all;
+        try {
+            all = ProcessInfo.all();
+        } catch (IOException e) {
+            context.err.println(e.getMessage());
+            return FAILURE;
+        }
+
+        boolean full = arguments.has('f');
+        boolean whole = arguments.has('x');
+        List<String> users = arguments.values('u');
+        long self = ProcessHandle.current().pid();
+        List<ProcessHandle> targets = new ArrayList<>();
+        for (ProcessInfo process : all) {
+            if (process.pid == self || (!users.isEmpty() && !users.contains(process.user))) {
+                continue;
+            }
+            String text = full ? process.commandLine : process.name;
+            if (whole ? pattern.matcher(text).matches() : pattern.matcher(text).find()) {
+                targets.add(process.handle);
+            }
+        }
+        if (targets.isEmpty()) {
+            // Wie pkill: kein Treffer ist Status 1, ohne Meldung
+            return FAILURE;
+        }
+
+        boolean verbose = arguments.has('v');
+        int status = KillCommand.terminate(context, targets, arguments.has('9'), graceNanos, verbose);
+        if (!verbose) {
+            context.out.println((arguments.has('9') ? "Killed " : "Terminated ") + targets.size() + " process(es).");
+        }
+        return status;
+    }
+}
@@ -0,0 +1,114 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * What {@code ps} and {@code kill} need to know about a process, taken from
+ * {@link ProcessHandle.Info} without starting another program. Values the operating
+ * system does not tell us (e.g. for processes of other users) are {@code null} or -1.
+ */
+final class ProcessInfo {
+    private static final Path PROC = Paths.get("/proc");
+
+    final ProcessHandle handle;
+    final long pid;
+    final String user;
+    /** CPU time used so far in nanoseconds, or -1. */
+    final long cpuNanos;
+    /** Start time in milliseconds since the epoch, or -1. */
+    final long startMillis;
+    /** The program name without directory, e.g. {@code java}; kernel threads in brackets. */
+    final String name;
+    /** The program with its arguments, or the name if they are not known. */
+    final String commandLine;
+
+    private ProcessInfo(ProcessHandle handle) {
+        ProcessHandle.Info info = handle.info();
+        this.handle = handle;
+        this.pid = handle.pid();
+        this.user = info.user().orElse(null);
+        this.cpuNanos = info.totalCpuDuration().map(Duration::toNanos).orElse(-1L);
+        this.startMillis = info.startInstant().map(Instant::toEpochMilli).orElse(-1L);
+
+        String commandLine = info.commandLine().map(ProcessInfo::printable).orElse(null);
+        String command = info.command().orElse(null);
+        if (command == null && commandLine != null) {
+            // Ohne lesbares Programm (fremde Prozesse) bleibt das erste Wort der Kommandozeile
+            int blank = commandLine.indexOf(' ');
+            command = blank < 0 ? commandLine : commandLine.substring(0, blank);
+        }
+        this.name = command != null ? baseName(command) : kernelName(pid);
+        this.commandLine = commandLine != null ? commandLine : command != null ? command : name;
+    }
+
+    /**
+     * A snapshot of one process.
+     */
+    static ProcessInfo of(ProcessHandle handle) {
+        return new ProcessInfo(handle);
+    }
+
+    /**
+     * A snapshot of all processes we may see, read in parallel on the {@link IoPool}
+     * since every process means a few reads from the operating system.
+     */
+    static List<ProcessInfo> all() throws IOException {
+        List<ProcessHandle> handles = ProcessHandle.allProcesses().collect(Collectors.toList());
+        try {
+            // Ein paralleler Stream in einer Aufgabe des Pools läuft auf dessen Threads
+            return IoPool.get().submit(() -> handles.parallelStream()
+                    .map(ProcessInfo::new)
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while listing processes");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to list processes: " + e.getCause(), e.getCause());
+        }
+    }
+
+    private static String baseName(String command) {
+        return command.substring(Math.max(command.lastIndexOf('/'), command.lastIndexOf('\\')) + 1);
+    }
+
+    /**
+     * Control characters in arguments (e.g. line breaks) shown as {@code ?}, as ps does.
+     */
+    private static String printable(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isISOControl(text.charAt(i))) {
+                StringBuilder result = new StringBuilder(text);
+                for (int j = i; j < result.length(); j++) {
+                    if (Character.isISOControl(result.charAt(j))) {
+                        result.setCharAt(j, '?');
+                    }
+                }
+                return result.toString();
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Without an executable (kernel threads, processes of others on some systems) Linux
+     * still names the process in {@code /proc/<pid>/comm}; shown in brackets like ps does.
+     */
+    private static String kernelName(long pid) {
+        try {
+            byte[] comm = Files.readAllBytes(PROC.resolve(Long.toString(pid)).resolve("comm"));
+            String name = new String(comm, StandardCharsets.UTF_8).trim();
+            return name.isEmpty() ? "?" : "[" + name + "]";
+        } catch (IOException | SecurityException e) {
+            return "?";
+        }
+    }
+}
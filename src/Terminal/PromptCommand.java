@@ -0,0 +1,52 @@
+package Terminal;
+
+/**
+ * {@code prompt}: shows or changes the format of the {@link PromptRenderer}.
+ */
+final class PromptCommand implements Command {
+    @Override
+    public String name() {
+        return "prompt";
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"prompt [format|reset]\tShow or change the prompt format"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: prompt [format|reset]",
+                "Without arguments the current format is printed. Quote the format to keep trailing spaces.",
+                "  %u - User name",
+                "  %h - Host name",
+                "  %w - Current directory, home shown as ~",
+                "  %? - Exit status of the last command",
+                "  %t - Duration of the last command",
+                "  %% - A percent sign",
+                "Default: " + PromptRenderer.DEFAULT_FORMAT
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        PromptRenderer prompt = context.session.prompt;
+        if (arguments.operands.isEmpty()) {
+            context.out.println(prompt.getFormat());
+            return SUCCESS;
+        }
+
+        String format = String.join(" ", arguments.operands);
+        if (format.equals("reset")) {
+            format = PromptRenderer.DEFAULT_FORMAT;
+        }
+        try {
+            prompt.setFormat(format);
+            return SUCCESS;
+        } catch (IllegalArgumentException e) {
+            context.err.println(e.getMessage());
+            return USAGE;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package Terminal;
+
+import java.io.File;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the prompt without doing any I/O on the way. The user name is read once, the
+ * host name is resolved (and later refreshed) by a daemon thread, and the displayed
+ * directory is computed when the directory changes, not when the prompt is printed.
+ * The format is parsed once into segments; the rendered prompt is reused until one of
+ * its inputs changes.
+ *
+ * <p>Format tokens: {@code %u} user, {@code %h} host, {@code %w} directory with the home
+ * directory shown as {@code ~}, {@code %?} exit status of the last command, {@code %t}
+ * duration of the last command, {@code %%} a percent sign.
+ */
+final class PromptRenderer {
+    static final String DEFAULT_FORMAT = "%u@%h:%w$ ";
+
+    private static final long HOSTNAME_REFRESH_MINUTES = 5;
+
+    private final String user = System.getProperty("user.name");
+    private final String home = System.getProperty("user.home");
+    private volatile String hostname;
+
+    private String format;
+    private List<Object> segments;
+    private String directory = "";
+    private int lastStatus;
+    private long lastDurationNanos;
+
+    private final StringBuilder rendered = new StringBuilder();
+    private String renderedHostname;
+    private boolean dirty = true;
+    private boolean resolverStarted;
+
+    PromptRenderer() {
+        // Bis die Namensauflösung fertig ist, den Namen aus der Umgebung zeigen
+        String fallback = System.getenv("HOSTNAME");
+        if (fallback == null) {
+            fallback = System.getenv("COMPUTERNAME");
+        }
+        hostname = fallback == null ? "localhost" : fallback;
+        setFormat(DEFAULT_FORMAT);
+    }
+
+    String getFormat() {
+        return format;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the format contains an unknown {@code %} token
+     */
+    void setFormat(String format) {
+        List<Object> parsed = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < format.length(); i++) {
+            char c = format.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            if (i + 1 == format.length()) {
+                throw new IllegalArgumentException("Incomplete token at end of prompt format");
+            }
+            char token = format.charAt(++i);
+            if (token == '%') {
+                literal.append('%');
+                continue;
+            }
+            if ("uhw?t".indexOf(token) < 0) {
+                throw new IllegalArgumentException("Unknown prompt token: %" + token);
+            }
+            if (literal.length() > 0) {
+                parsed.add(literal.toString());
+                literal.setLength(0);
+            }
+            parsed.add(token);
+        }
+        if (literal.length() > 0) {
+            parsed.add(literal.toString());
+        }
+
+        this.format = format;
+        this.segments = parsed;
+        dirty = true;
+    }
+
+    /**
+     * Called whenever the current directory changes.
+     */
+    void setDirectory(String path) {
+        String display = path;
+        if (home != null && !path.equals("~")) {
+            if (path.equals(home)) {
+                display = "~";
+            } else if (path.startsWith(home + File.separator)) {
+                display = "~" + path.substring(home.length());
+            }
+        }
+        display = display.replace("\\", "/");
+        if (!display.equals(directory)) {
+            directory = display;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Records the outcome of the command that just finished.
+     */
+    void commandFinished(int status, long durationNanos) {
+        lastStatus = status;
+        lastDurationNanos = durationNanos;
+        dirty = true;
+    }
+
+    String render() {
+        if (!resolverStarted) {
+            // Erst beim ersten Prompt: im Batch-Betrieb wird nie einer gezeigt
+            Thread resolver = new Thread(this::resolveHostname, "prompt-hostname");
+            resolver.setDaemon(true);
+            resolver.start();
+            resolverStarted = true;
+        }
+        String currentHostname = hostname;
+        if (!dirty && currentHostname.equals(renderedHostname)) {
+            return rendered.toString();
+        }
+
+        rendered.setLength(0);
+        for (Object segment : segments) {
+            if (segment instanceof String) {
+                rendered.append((String) segment);
+                continue;
+            }
+            switch ((Character) segment) {
+                case 'u':
+                    rendered.append(user);
+                    break;
+                case 'h':
+                    rendered.append(currentHostname);
+                    break;
+                case 'w':
+                    rendered.append(directory);
+                    break;
+                case '?':
+                    rendered.append(lastStatus);
+                    break;
+                case 't':
+                    appendDuration(rendered, lastDurationNanos);
+                    break;
+                default:
+                    break;
+            }
+        }
+        renderedHostname = currentHostname;
+        dirty = false;
+        return rendered.toString();
+    }
+
+    private static void appendDuration(StringBuilder target, long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (millis < 1000) {
+            target.append(millis).append("ms");
+        } else if (millis < 60_000) {
+            target.append(millis / 1000).append('.').append(millis % 1000 / 100).append('s');
+        } else {
+            long seconds = millis / 1000;
+            target.append(seconds / 60).append('m');
+            if (seconds % 60 < 10) {
+                target.append('0');
+            }
+            target.append(seconds % 60).append('s');
+        }
+    }
+
+    private void resolveHostname() {
+        while (true) {
+            try {
+                hostname = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                // Bisherigen Namen behalten
+            }
+            try {
+                TimeUnit.MINUTES.sleep(HOSTNAME_REFRESH_MINUTES);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
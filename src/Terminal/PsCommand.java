@@ -0,0 +1,189 @@
+package Terminal;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * {@code ps}: lists processes with their owner, CPU time, start time and command, read
+ * through {@link ProcessHandle} on every operating system instead of from another program.
+ */
+final class PsCommand implements Command {
+    private static final DateTimeFormatter TODAY = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter THIS_YEAR = DateTimeFormatter.ofPattern("MMMdd", Locale.ENGLISH);
+    private static final DateTimeFormatter EARLIER = DateTimeFormatter.ofPattern("yyyy");
+
+    private final OptionSpec options = new OptionSpec().flags("f").values("u").longValues("sort");
+
+    @Override
+    public String name() {
+        return "ps";
+    }
+
+    @Override
+    public OptionSpec options() {
+        return options;
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"ps [-f] [-u user] [--sort=key] [pattern]\tView running processes"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: ps [-f] [-u user] [--sort=key] [pattern]",
+                "View running processes: PID, owner, CPU time, start time and command.",
+                "A pattern (regular expression, case-insensitive) selects processes by program name.",
+                "Options:",
+                "  -f         - Show and match the full command line with arguments",
+                "  -u user    - Only processes of this user (can be repeated)",
+                "  --sort=key - Sort by pid (default), user, cpu, start or command;",
+                "               a leading - sorts in descending order, e.g. --sort=-cpu"
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        boolean full = arguments.has('f');
+        List<String> users = arguments.values('u');
+
+        Comparator<ProcessInfo> order;
+        String sort = arguments.values("sort").isEmpty() ? "pid" : arguments.values("sort").get(0);
+        boolean descending = sort.startsWith("-");
+        String key = descending || sort.startsWith("+") ? sort.substring(1) : sort;
+        switch (key) {
+            case "pid":
+                order = Comparator.comparingLong(process -> process.pid);
+                break;
+            case "user":
+                order = Comparator.comparing(process -> process.user == null ? "" : process.user);
+                break;
+            case "cpu":
+            case "time":
+                order = Comparator.comparingLong(process -> process.cpuNanos);
+                break;
+            case "start":
+                order = Comparator.comparingLong(process -> process.startMillis);
+                break;
+            case "command":
+            case "name":
+                order = Comparator.comparing(process -> full ? process.commandLine : process.name);
+                break;
+            default:
+                context.err.println("Invalid sort key for ps: " + sort + " (pid, user, cpu, start or command)");
+                return USAGE;
+        }
+        if (descending) {
+            order = order.reversed();
+        }
+
+        Pattern pattern = null;
+        if (!arguments.operands.isEmpty()) {
+            try {
+                pattern = Pattern.compile(String.join(" ", arguments.operands), Pattern.CASE_INSENSITIVE);
+            } catch (PatternSyntaxException e) {
+                context.err.println("Invalid pattern: " + e.getDescription());
+                return USAGE;
+            }
+        }
+
+        List<ProcessInfo> all;
+        try {
+            all = ProcessInfo.all();
+        } catch (IOException e) {
+            context.err.println(e.getMessage());
+            return FAILURE;
+        }
+
+        List<ProcessInfo> selected = new ArrayList<>(all.size());
+        for (ProcessInfo process : all) {
+            if (!users.isEmpty() && !users.contains(process.user)) {
+                continue;
+            }
+            if (pattern != null && !pattern.matcher(full ? process.commandLine : process.name).find()) {
+                continue;
+            }
+            selected.add(process);
+        }
+        selected.sort(order);
+
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate today = LocalDate.now(zone);
+        StringBuilder line = new StringBuilder(128);
+        context.out.println("    PID USER          TIME  START  COMMAND");
+        for (ProcessInfo process : selected) {
+            line.setLength(0);
+            padLeft(line, Long.toString(process.pid), 7).append(' ');
+            padRight(line, process.user == null ? "?" : abbreviate(process.user, 8), 8).append(' ');
+            padLeft(line, formatCpu(process.cpuNanos), 9).append("  ");
+            padRight(line, formatStart(process.startMillis, zone, today), 5).append("  ");
+            line.append(full ? process.commandLine : process.name);
+            context.out.println(line);
+        }
+        // Wie pgrep: kein Treffer ist ein Fehler, damit Skripte es prüfen können
+        return selected.isEmpty() && (pattern != null || !users.isEmpty()) ? FAILURE : SUCCESS;
+    }
+
+    /**
+     * CPU time as ps shows it: {@code [DD-]HH:MM:SS}.
+     */
+    static String formatCpu(long nanos) {
+        if (nanos < 0) {
+            return "-";
+        }
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(nanos);
+        long days = seconds / 86_400;
+        String time = twoDigits(seconds / 3600 % 24) + ":" + twoDigits(seconds / 60 % 60) + ":" + twoDigits(seconds % 60);
+        return days > 0 ? days + "-" + time : time;
+    }
+
+    /**
+     * Start time as ps shows it: the time for today, else the day, else the year.
+     */
+    private static String formatStart(long millis, ZoneId zone, LocalDate today) {
+        if (millis < 0) {
+            return "-";
+        }
+        ZonedDateTime start = Instant.ofEpochMilli(millis).atZone(zone);
+        if (start.toLocalDate().equals(today)) {
+            return TODAY.format(start);
+        }
+        return start.getYear() == today.getYear() ? THIS_YEAR.format(start) : EARLIER.format(start);
+    }
+
+    private static String twoDigits(long value) {
+        return value < 10 ? "0" + value : Long.toString(value);
+    }
+
+    static String abbreviate(String text, int width) {
+        // Wie ps: zu lange Namen enden auf +
+        return text.length() > width ? text.substring(0, width - 1) + "+" : text;
+    }
+
+    static StringBuilder padLeft(StringBuilder line, String text, int width) {
+        for (int i = text.length(); i < width; i++) {
+            line.append(' ');
+        }
+        return line.append(text);
+    }
+
+    static StringBuilder padRight(StringBuilder line, String text, int width) {
+        line.append(text);
+        for (int i = text.length(); i < width; i++) {
+            line.append(' ');
+        }
+        return line;
+    }
+}
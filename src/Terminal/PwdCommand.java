@@ -0,0 +1,27 @@
+package Terminal;
+
+/**
+ * {@code pwd}: prints the current directory.
+ */
+final class PwdCommand implements Command {
+    @Override
+    public String name() {
+        return "pwd";
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"pwd\tPrint the current working directory"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{"Usage: pwd", "Print the current working directory."};
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        context.out.println(context.directory().toString());
+        return SUCCESS;
+    }
+}
@@ -0,0 +1,397 @@
+package Terminal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Runs {@link GrepEngine} over many files at once. The tree is walked on the calling thread
+ * while files are searched on the {@link IoPool}. Output is written in walk order, so it stays
+ * grouped per file: the file at the head of the queue streams to the output while it is being
+ * searched, and the files behind it keep up to {@value #MEMORY_LIMIT} bytes in memory and the
+ * rest in a temporary file until their turn.
+ */
+final class RecursiveGrep {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int MEMORY_LIMIT = 1024 * 1024;
+
+    private RecursiveGrep() {
+    }
+
+    static final class Summary {
+        long files;
+        long matchedFiles;
+        long selected;
+        long errors;
+    }
+
+    /**
+     * The output of one file. The searching thread appends it in chunks; the calling thread
+     * writes the chunks out, and is the only one that writes to the output.
+     */
+    private static final class FileResult extends OutputStream {
+        final String label;
+        long selected;
+        String error;
+        // Nur der suchende Thread
+        private byte[] chunk;
+        private int length;
+        // Das Folgende unter der Sperre des Objekts
+        private final Deque<byte[]> chunks = new ArrayDeque<>();
+        private int buffered;
+        private FileChannel spill;
+        private long spillWritten;
+        private long spillRead;
+        private boolean done;
+        private boolean discarded;
+
+        FileResult(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureSpace();
+            chunk[length++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int count) throws IOException {
+            while (count > 0) {
+                ensureSpace();
+                int n = Math.min(count, chunk.length - length);
+                System.arraycopy(bytes, offset, chunk, length, n);
+                length += n;
+                offset += n;
+                count -= n;
+            }
+        }
+
+        private void ensureSpace() throws IOException {
+            if (chunk == null) {
+                // Klein anfangen: die meisten Dateien haben keinen Treffer
+                chunk = new byte[1024];
+            } else if (length == chunk.length) {
+                if (chunk.length < CHUNK_SIZE) {
+                    chunk = Arrays.copyOf(chunk, chunk.length * 2);
+                } else {
+                    publish();
+                    chunk = new byte[CHUNK_SIZE];
+                }
+            }
+        }
+
+        /**
+         * Hands the current chunk to the calling thread: in memory while there is room,
+         * otherwise (and from then on, to keep the order) in the temporary file.
+         */
+        private void publish() throws IOException {
+            if (length == 0) {
+                return;
+            }
+            byte[] bytes = length == chunk.length ? chunk : Arrays.copyOf(chunk, length);
+            length = 0;
+            synchronized (this) {
+                if (discarded) {
+                    throw new IOException("Search cancelled");
+                }
+                if (spill == null && buffered + bytes.length <= MEMORY_LIMIT) {
+                    chunks.add(bytes);
+                    buffered += bytes.length;
+                    notifyAll();
+                    return;
+                }
+                if (spill == null) {
+                    Path file = Files.createTempFile("grep", ".out");
+                    spill = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                            StandardOpenOption.DELETE_ON_CLOSE);
+                }
+            }
+            // Nur dieser Thread schreibt, der aufrufende liest nur, was schon gezählt ist
+            ByteBuffer source = ByteBuffer.wrap(bytes);
+            long position = spillWritten;
+            while (source.hasRemaining()) {
+                position += spill.write(source, position);
+            }
+            synchronized (this) {
+                spillWritten = position;
+                notifyAll();
+            }
+        }
+
+        /**
+         * Called by the searching thread at the end, also after errors.
+         */
+        void finish() {
+            try {
+                publish();
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e.getMessage();
+                }
+            }
+            synchronized (this) {
+                done = true;
+                if (discarded) {
+                    closeSpill();
+                }
+                notifyAll();
+            }
+        }
+
+        synchronized boolean isDone() {
+            return done;
+        }
+
+        /**
+         * Writes what the search has produced so far to {@code out}; with {@code wait} also
+         * everything it produces until it is done.
+         */
+        void transferTo(OutputStream out, boolean wait) throws IOException {
+            ByteBuffer buffer = null;
+            while (true) {
+                byte[] next = null;
+                long from;
+                long to;
+                synchronized (this) {
+                    while (wait && chunks.isEmpty() && spillRead == spillWritten && !done) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new InterruptedIOException("Interrupted while waiting for grep");
+                        }
+                    }
+                    from = spillRead;
+                    to = spillWritten;
+                    if (!chunks.isEmpty()) {
+                        next = chunks.poll();
+                        buffered -= next.length;
+                    } else if (from < to) {
+                        spillRead = to;
+                    } else {
+                        if (done) {
+                            closeSpill();
+                        }
+                        return;
+                    }
+                }
+                if (next != null) {
+                    out.write(next);
+                    continue;
+                }
+                if (buffer == null) {
+                    buffer = ByteBuffer.allocate(CHUNK_SIZE);
+                }
+                while (from < to) {
+                    buffer.clear().limit((int) Math.min(CHUNK_SIZE, to - from));
+                    while (buffer.hasRemaining()) {
+                        from += spill.read(buffer, from);
+                    }
+                    out.write(buffer.array(), 0, buffer.position());
+                }
+            }
+        }
+
+        /**
+         * Drops the output of a file that will not be written, e.g. after the reader of the
+         * output went away; a search still running stops at its next chunk.
+         */
+        synchronized void discard() {
+            discarded = true;
+            chunks.clear();
+            if (done) {
+                closeSpill();
+            }
+        }
+
+        private void closeSpill() {
+            if (spill != null) {
+                try {
+                    spill.close();
+                } catch (IOException ignored) {
+                }
+                spill = null;
+            }
+        }
+    }
+
+    /**
+     * Searches every root. Directories are walked recursively; {@code labels} holds the
+     * name shown for each root, or {@code null} to print paths relative to the root.
+     * Files that cannot be read are reported on {@code err} and counted in
+     * {@link Summary#errors}. The bytes read are added to {@code io}.
+     */
+    static Summary search(List<Path> roots, List<String> labels, GrepEngine.Searcher searcher,
+                          GrepEngine.Options options, OutputStream out, TerminalOutput err, IoCounter io) throws IOException {
+        Summary summary = new Summary();
+        Deque<FileResult> pending = new ArrayDeque<>();
+        // Begrenzt, wie viele Dateien gleichzeitig durchsucht werden oder auf die Ausgabe warten
+        int maxPending = IoPool.parallelism() * 4;
+        try {
+            walk(roots, labels, searcher, options, out, err, io, pending, maxPending, summary);
+            drain(pending, 0, options, out, err, summary);
+        } finally {
+            // Nach einem Abbruch (z.B. Broken Pipe) keine Suchen und temporären Dateien zurücklassen
+            for (FileResult result : pending) {
+                result.discard();
+            }
+        }
+        return summary;
+    }
+
+    private static void walk(List<Path> roots, List<String> labels, GrepEngine.Searcher searcher,
+                             GrepEngine.Options options, OutputStream out, TerminalOutput err, IoCounter io,
+                             Deque<FileResult> pending, int maxPending, Summary summary) throws IOException {
+
+        List<PathMatcher> includes = matchers(options.includeGlobs);
+        List<PathMatcher> excludes = matchers(options.excludeGlobs);
+        List<PathMatcher> excludeDirs = matchers(options.excludeDirGlobs);
+
+        for (int i = 0; i < roots.size(); i++) {
+            Path root = roots.get(i);
+            String rootLabel = labels.get(i);
+
+            if (!Files.isDirectory(root)) {
+                submit(root, rootLabel != null ? rootLabel : root.toString(), searcher, options, io, pending, summary);
+                drain(pending, maxPending, options, out, err, summary);
+                continue;
+            }
+
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!dir.equals(root) && matchesAny(excludeDirs, dir)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    if (attrs.isRegularFile()
+                            && (includes.isEmpty() || matchesAny(includes, file))
+                            && !matchesAny(excludes, file)) {
+                        String relative = root.relativize(file).toString();
+                        String label = rootLabel == null ? relative : Path.of(rootLabel, relative).toString();
+                        submit(file, label, searcher, options, io, pending, summary);
+                        drain(pending, maxPending, options, out, err, summary);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                    summary.errors++;
+                    err.println("Error reading file: " + file + " (" + exc.getMessage() + ")");
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+    }
+
+    private static void submit(Path file, String label, GrepEngine.Searcher searcher, GrepEngine.Options options,
+                               IoCounter io, Deque<FileResult> pending, Summary summary) {
+        GrepEngine.Searcher taskSearcher = searcher.copy();
+        summary.files++;
+        FileResult result = new FileResult(label);
+        pending.add(result);
+        IoPool.get().execute(() -> searchFile(file, taskSearcher, options, io, result));
+    }
+
+    private static void searchFile(Path file, GrepEngine.Searcher searcher, GrepEngine.Options options,
+                                   IoCounter io, FileResult result) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            result.selected = GrepEngine.search(io.count(channel), searcher, options, result, result.label);
+        } catch (IOException e) {
+            result.error = e.getMessage();
+        } catch (RuntimeException e) {
+            // Niemand wartet auf die Ausnahme der Aufgabe, der aufrufende Thread nur auf finish()
+            result.error = e.toString();
+        } finally {
+            result.finish();
+        }
+    }
+
+    /**
+     * Writes the output of the files at the head of the queue: all of it for finished files,
+     * and what there is so far for the first unfinished one. Waits for the head while more
+     * than {@code keep} files are pending, so output order always matches submission order.
+     */
+    private static void drain(Deque<FileResult> pending, int keep, GrepEngine.Options options,
+                              OutputStream out, TerminalOutput err, Summary summary) throws IOException {
+        while (!pending.isEmpty()) {
+            FileResult result = pending.peekFirst();
+            boolean wait = pending.size() > keep;
+            if (!wait && !result.isDone()) {
+                if (!options.count && !options.listFiles) {
+                    // Die vorderste Datei schon während der Suche ausgeben
+                    result.transferTo(out, false);
+                }
+                return;
+            }
+            if (!options.count && !options.listFiles) {
+                result.transferTo(out, true);
+            } else {
+                result.transferTo(OutputStream.nullOutputStream(), true);
+            }
+            pending.pollFirst();
+
+            if (result.error != null) {
+                summary.errors++;
+                err.println("Error reading file: " + result.label + " (" + result.error + ")");
+                continue;
+            }
+
+            summary.selected += result.selected;
+            if (result.selected > 0) {
+                summary.matchedFiles++;
+            }
+
+            if (options.listFiles) {
+                if (result.selected > 0) {
+                    out.write((result.label + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+            } else if (options.count) {
+                out.write((result.label + ":" + result.selected + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private static List<PathMatcher> matchers(List<String> globs) {
+        List<PathMatcher> matchers = new ArrayList<>();
+        for (String glob : globs) {
+            matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + glob));
+        }
+        return matchers;
+    }
+
+    private static boolean matchesAny(List<PathMatcher> matchers, Path path) {
+        Path name = path.getFileName();
+        if (name == null) {
+            return false;
+        }
+        for (PathMatcher matcher : matchers) {
+            if (matcher.matches(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,50 @@
+package Terminal;
+
+import java.io.File;
+
+/**
+ * {@code rm}: deletes files.
+ */
+final class RemoveCommand implements Command {
+    @Override
+    public String name() {
+        return "rm";
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"rm [file]\tRemove a file"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{"Usage: rm [file...]", "Remove a file."};
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        if (arguments.operands.isEmpty()) {
+            context.err.println("Missing argument for rm command.");
+            return USAGE;
+        }
+
+        int status = SUCCESS;
+        for (String filePath : arguments.operands) {
+            File file = context.resolve(filePath).toFile();
+
+            if (file.exists()) {
+                if (file.delete()) {
+                    MetadataCache.get().invalidate(file.toPath());
+                    context.out.println("File deleted: " + file.getAbsolutePath());
+                } else {
+                    context.err.println("Failed to delete file: " + file.getAbsolutePath());
+                    status = FAILURE;
+                }
+            } else {
+                context.err.println("File not found: " + file.getAbsolutePath());
+                status = FAILURE;
+            }
+        }
+        return status;
+    }
+}
@@ -0,0 +1,71 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+
+/**
+ * {@code rmdir}: deletes a directory together with its contents, in parallel with the {@link DeleteEngine}.
+ */
+final class RemoveDirectoryCommand implements Command {
+
+    @Override
+    public String name() {
+        return "rmdir";
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"rmdir [directory]\tRemove a directory"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: rmdir [directory...]",
+                "Remove a directory with everything in it. Subdirectories are deleted in parallel;",
+                "files that cannot be deleted are reported at the end and the rest is removed anyway."
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        if (arguments.operands.isEmpty()) {
+            context.err.println("Missing argument for rmdir command.");
+            return USAGE;
+        }
+
+        int status = SUCCESS;
+        for (String directory : arguments.operands) {
+            Path dirPath = context.resolve(directory);
+
+            if (!Files.isDirectory(dirPath, LinkOption.NOFOLLOW_LINKS)) {
+                context.err.println("Directory not found: " + directory);
+                status = FAILURE;
+                continue;
+            }
+            if (dirPath.getParent() == null || context.directory().startsWith(dirPath)) {
+                context.err.println("Refusing to delete " + dirPath + ": it contains the current directory");
+                status = FAILURE;
+                continue;
+            }
+
+            DeleteEngine.Result result;
+            try {
+                result = DeleteEngine.delete(dirPath);
+            } catch (IOException e) {
+                context.err.println("Failed to delete directory: " + e.getMessage());
+                status = FAILURE;
+                continue;
+            }
+
+            context.out.printf("Directory %s %s: %d file(s), %d director%s, %s in %.2f s%n",
+                    directory, result.errors.isEmpty() ? "deleted" : "partly deleted",
+                    result.files, result.directories, result.directories == 1 ? "y" : "ies",
+                    ListCommand.getFileSize(result.bytes), ListCommand.getSeconds(result.nanos));
+            status |= ListCommand.printErrors(context, result.errors);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,214 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.zip.CRC32C;
+
+/**
+ * Copies a single large file in fixed-size chunks so that an interrupted copy can be resumed.
+ * After a chunk has been written and forced to disk, its index and CRC-32C are appended to a
+ * journal next to the target ({@code <target>.resume}). A later run with the same source finds
+ * the journal, checks the last recorded chunk against the target and continues after the last
+ * one that matches. The CRCs are computed from the bytes read from the source, so the target
+ * can be verified against them at the end without reading the source again. The journal is
+ * deleted once the copy is complete.
+ */
+final class ResumableCopy {
+    static final int CHUNK_SIZE = 8 * 1024 * 1024;
+    static final String JOURNAL_SUFFIX = ".resume";
+
+    private static final long MAGIC = 0x544A524553554D45L; // "TJRESUME"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 8;
+
+    private ResumableCopy() {
+    }
+
+    interface Progress {
+        /**
+         * Called on the copying thread after every chunk.
+         *
+         * @param done  bytes of the target that are complete, including resumed ones
+         * @param total size of the source
+         */
+        void update(long done, long total);
+    }
+
+    static final class Result {
+        long bytes;
+        /** Bytes that were already copied by an earlier run. */
+        long resumedBytes;
+        long nanos;
+        boolean verified;
+    }
+
+    static Path journalOf(Path target) {
+        return target.resolveSibling(target.getFileName() + JOURNAL_SUFFIX);
+    }
+
+    /**
+     * @param verify re-read the whole target at the end and compare it with the chunk CRCs
+     * @throws FileAlreadyExistsException if the target exists without a journal
+     */
+    static Result copy(Path source, Path target, boolean verify, boolean preserve, Progress progress)
+            throws IOException {
+        long start = System.nanoTime();
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        int chunks = (int) ((size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+
+        Path journalPath = journalOf(target);
+        if (Files.exists(target) && !Files.exists(journalPath)) {
+            throw new FileAlreadyExistsException(target.toString(), null, "target exists and has no resume journal");
+        }
+
+        Result result = new Result();
+        int[] crcs = new int[chunks];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE);
+        CRC32C crc = new CRC32C();
+
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+             FileChannel journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+            int first = readJournal(journal, size, modified, crcs);
+            // Der letzte eingetragene Block könnte beim Abbruch unvollständig gelandet sein
+            while (first > 0 && !chunkMatches(out, first - 1, size, crcs[first - 1], buffer, crc)) {
+                first--;
+            }
+            if (first == 0) {
+                journal.truncate(0);
+                writeHeader(journal, size, modified);
+            } else {
+                journal.truncate(HEADER_SIZE + (long) first * RECORD_SIZE);
+            }
+            journal.position(journal.size());
+            result.resumedBytes = Math.min(size, (long) first * CHUNK_SIZE);
+            progress.update(result.resumedBytes, size);
+
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            for (int chunk = first; chunk < chunks; chunk++) {
+                long position = (long) chunk * CHUNK_SIZE;
+                int length = (int) Math.min(CHUNK_SIZE, size - position);
+                readFully(in, buffer, position, length);
+
+                crc.reset();
+                crc.update(buffer);
+                crcs[chunk] = (int) crc.getValue();
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer, position + buffer.position());
+                }
+                // Erst die Daten auf die Platte, dann den Block als erledigt eintragen
+                out.force(false);
+
+                record.clear();
+                record.putInt(chunk).putInt(crcs[chunk]).flip();
+                while (record.hasRemaining()) {
+                    journal.write(record);
+                }
+                journal.force(false);
+                progress.update(position + length, size);
+            }
+
+            out.truncate(size);
+            out.force(true);
+            result.bytes = size;
+
+            if (verify) {
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    if (!chunkMatches(out, chunk, size, crcs[chunk], buffer, crc)) {
+                        // Journal auf die guten Blöcke kürzen, damit der nächste Lauf dort weitermacht
+                        journal.truncate(HEADER_SIZE + (long) chunk * RECORD_SIZE);
+                        journal.force(false);
+                        throw new IOException("Verification failed at byte " + (long) chunk * CHUNK_SIZE
+                                + "; run the copy again to resume from there");
+                    }
+                }
+                result.verified = true;
+            }
+        }
+
+        Files.delete(journalPath);
+        if (preserve) {
+            CopyEngine.copyAttributes(source, attributes, target);
+        }
+        MetadataCache.get().invalidate(target);
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Reads a journal left by an earlier run into {@code crcs} and returns the number of
+     * chunks it records, or 0 if it is empty or belongs to a different source.
+     */
+    private static int readJournal(FileChannel journal, long size, long modified, int[] crcs) throws IOException {
+        long length = journal.size();
+        if (length < HEADER_SIZE) {
+            return 0;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(journal, header, 0, HEADER_SIZE);
+        if (header.getLong() != MAGIC || header.getInt() != VERSION || header.getInt() != CHUNK_SIZE
+                || header.getLong() != size || header.getLong() != modified) {
+            // Quelle hat sich geändert: von vorn beginnen
+            return 0;
+        }
+
+        int records = (int) Math.min((length - HEADER_SIZE) / RECORD_SIZE, crcs.length);
+        ByteBuffer body = ByteBuffer.allocate(records * RECORD_SIZE);
+        readFully(journal, body, HEADER_SIZE, records * RECORD_SIZE);
+        for (int i = 0; i < records; i++) {
+            if (body.getInt() != i) {
+                // Blöcke werden der Reihe nach eingetragen; alles danach ist ungültig
+                return i;
+            }
+            crcs[i] = body.getInt();
+        }
+        return records;
+    }
+
+    private static void writeHeader(FileChannel journal, long size, long modified) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putLong(MAGIC).putInt(VERSION).putInt(CHUNK_SIZE).putLong(size).putLong(modified).flip();
+        while (header.hasRemaining()) {
+            journal.write(header, header.position());
+        }
+        journal.force(false);
+    }
+
+    private static boolean chunkMatches(FileChannel target, int chunk, long size, int expected,
+                                        ByteBuffer buffer, CRC32C crc) throws IOException {
+        long position = (long) chunk * CHUNK_SIZE;
+        int length = (int) Math.min(CHUNK_SIZE, size - position);
+        if (target.size() < position + length) {
+            return false;
+        }
+        readFully(target, buffer, position, length);
+        crc.reset();
+        crc.update(buffer);
+        return (int) crc.getValue() == expected;
+    }
+
+    /**
+     * Fills {@code buffer} with {@code length} bytes from {@code position} and flips it.
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position, int length) throws IOException {
+        buffer.clear().limit(length);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of file at byte " + (position + buffer.position()));
+            }
+        }
+        buffer.flip();
+    }
+}
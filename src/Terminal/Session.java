@@ -0,0 +1,49 @@
+package Terminal;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * State that outlives a single command: the current directory, the prompt, the registered
+ * commands and the history.
+ */
+final class Session {
+    final CommandRegistry registry;
+    final PromptRenderer prompt;
+    final CommandHistory history = new CommandHistory();
+    private final Path home = Paths.get(System.getProperty("user.home"));
+    private Path directory;
+
+    Session(CommandRegistry registry, PromptRenderer prompt, Path directory) {
+        this.registry = registry;
+        this.prompt = prompt;
+        setDirectory(directory);
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    void setDirectory(Path directory) {
+        this.directory = directory.toAbsolutePath().normalize();
+        prompt.setDirectory(this.directory.toString());
+    }
+
+    Path home() {
+        return home;
+    }
+
+    /**
+     * Resolves a path given on the command line: absolute paths stay as they are, relative
+     * ones are taken from the current directory, and a leading {@code ~} is the home directory.
+     */
+    Path resolve(String path) {
+        if (path.equals("~")) {
+            return home;
+        }
+        if (path.startsWith("~/") || path.startsWith("~\\")) {
+            return home.resolve(path.substring(2));
+        }
+        return directory.resolve(path).normalize();
+    }
+}
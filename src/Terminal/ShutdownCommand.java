@@ -0,0 +1,114 @@
+package Terminal;
+
+import java.io.IOException;
+
+/**
+ * {@code shutdown}: shuts the computer down now, after a delay, or cancels a scheduled shutdown.
+ */
+final class ShutdownCommand implements Command {
+    private final OptionSpec options = new OptionSpec().flags("c");
+
+    @Override
+    public String name() {
+        return "shutdown";
+    }
+
+    @Override
+    public OptionSpec options() {
+        return options;
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"shutdown [options]\tShutdown, halt, or restart the system"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: shutdown [options]",
+                "Shutdown, halt, or restart the system.",
+                "Options:",
+                "  now - Shutdown the system immediately",
+                "  <time> - Shutdown the system at the specified time (24-hour format)",
+                "Options:",
+                "  -c - Cancel a previously scheduled shutdown"
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) throws IOException {
+        if (arguments.has('c')) {
+            executeCancelShutdown(context);
+            return SUCCESS;
+        }
+
+        String shutdownOption = arguments.operand(0);
+        if (shutdownOption == null) {
+            context.out.println("Shutting down the system in 1 minute...");
+            executeShutdown(context);
+        } else if (shutdownOption.equals("now")) {
+            executeShutdownNow(context);
+        } else if (shutdownOption.matches("\\d{1,2}:\\d{2}")) {
+            String[] timeParts = shutdownOption.split(":");
+            int hours = Integer.parseInt(timeParts[0]);
+            int minutes = Integer.parseInt(timeParts[1]);
+            executeScheduledShutdown(context, hours, minutes);
+        } else {
+            context.err.println("Invalid shutdown option: " + shutdownOption);
+            return USAGE;
+        }
+        return SUCCESS;
+    }
+
+    private static void executeShutdown(CommandContext context) throws IOException {
+        //Perform shutdown in 1 minute
+        // For Linux/Unix-based systems
+        //String shutdownCommand = "shutdown +1"; // Herunterfahren in 1 Minute
+        //Runtime.getRuntime().exec(new String[] { "bash", "-c", shutdownCommand });
+        //out.println("Computer wird in 1 Minute heruntergefahren.");
+        // For Windows systems
+        String shutdownCommand = "shutdown"; // Herunterfahren in 1 Minute
+        Runtime.getRuntime().exec(shutdownCommand);
+        context.out.println("Computer wird in 1 Minute heruntergefahren.");
+    }
+
+    private static void executeShutdownNow(CommandContext context) throws IOException {
+        // Perform immediate shutdown, based on the operating system
+        // For Linux/Unix-based systems
+        // String shutdownCommand = "shutdown -h now";
+        // Runtime.getRuntime().exec(new String[] { "bash", "-c", shutdownCommand });
+        // out.println("Computer wird sofort heruntergefahren und ausgeschaltet.");
+
+        // For Windows systems
+        String shutdownCommand = "shutdown -s -f -t 0";
+        Runtime.getRuntime().exec(shutdownCommand);
+        context.out.println("Computer wird sofort heruntergefahren und ausgeschaltet.");
+    }
+
+    private static void executeScheduledShutdown(CommandContext context, int hours, int minutes) throws IOException {
+        // Perform shutdown at the specified time, based on the operating system
+        // For Linux/Unix-based systems
+        // String shutdownCommand = "shutdown -h " + hours + ":" + minutes;
+        // Runtime.getRuntime().exec(new String[] { "bash", "-c", shutdownCommand });
+        // out.println("Computer wird um " + hours + ":" + minutes + " heruntergefahren.");
+
+        // For Windows systems
+        String shutdownCommand = "shutdown /s /f /t " + (hours * 3600 + minutes * 60);
+        Runtime.getRuntime().exec(shutdownCommand);
+        context.out.println("Computer wird in " + hours + " Stunden und " + minutes + " Minuten heruntergefahren.");
+    }
+
+    private static void executeCancelShutdown(CommandContext context) throws IOException {
+        // Cancel a scheduled shutdown, based on the operating system
+        // For Linux/Unix-based systems
+        // String cancelCommand = "shutdown -c";
+        // Runtime.getRuntime().exec(new String[] { "bash", "-c", cancelCommand });
+        // out.println("Geplanter Herunterfahrungsprozess wurde abgebrochen.");
+
+        // For Windows systems
+        String cancelCommand = "shutdown /a";
+        Runtime.getRuntime().exec(cancelCommand);
+        context.out.println("Geplanter Herunterfahrungsprozess wurde abgebrochen.");
+    }
+}
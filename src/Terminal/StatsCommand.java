@@ -0,0 +1,76 @@
+package Terminal;
+
+import java.util.List;
+
+/**
+ * {@code stats}: shows the {@link CommandMetrics} of the commands run so far, or clears them.
+ */
+final class StatsCommand implements Command {
+    @Override
+    public String name() {
+        return "stats";
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"stats [command...|clear]\tShow how long commands took and what they used"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: stats [command...|clear]",
+                "For every command run in this session (or the given ones), busiest first:",
+                "  CALLS, FAILED     - How often it ran, and how often with an exit status other than 0",
+                "  P50, P99, MAX     - Wall time that half of the calls, 99% of them and all stayed below",
+                "  TOTAL             - Wall time of all calls",
+                "  CPU, ALLOC        - CPU time and heap bytes of the thread running the command, in total",
+                "  READ, WRITTEN     - Bytes the command read from files and its input, and wrote to",
+                "                      its output and to files, in total",
+                "Percentiles are accurate to about 12%. Work a command hands to other threads (e.g.",
+                "copying many files at once) is in its wall time but not in CPU and ALLOC.",
+                "A command run with time is counted once, under its own name.",
+                "  clear - Forget all figures"
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        CommandMetrics metrics = CommandMetrics.get();
+        if (arguments.operands.size() == 1 && arguments.operand(0).equals("clear")) {
+            metrics.clear();
+            context.out.println("Command statistics cleared.");
+            return SUCCESS;
+        }
+
+        List<CommandMetrics.Entry> entries = metrics.entries();
+        StringBuilder line = new StringBuilder(160);
+        line.append("COMMAND     CALLS FAILED       P50       P99       MAX     TOTAL       CPU      ALLOC       READ    WRITTEN");
+        context.out.println(line);
+        int shown = 0;
+        for (CommandMetrics.Entry entry : entries) {
+            if (!arguments.operands.isEmpty() && !arguments.operands.contains(entry.name)) {
+                continue;
+            }
+            line.setLength(0);
+            PsCommand.padRight(line, PsCommand.abbreviate(entry.name, 10), 10);
+            PsCommand.padLeft(line, Long.toString(entry.calls.sum()), 6).append(' ');
+            PsCommand.padLeft(line, Long.toString(entry.failures.sum()), 6);
+            PsCommand.padLeft(line, CommandMetrics.formatNanos(entry.percentile(0.5)), 10);
+            PsCommand.padLeft(line, CommandMetrics.formatNanos(entry.percentile(0.99)), 10);
+            PsCommand.padLeft(line, CommandMetrics.formatNanos(entry.maxNanos.get()), 10);
+            PsCommand.padLeft(line, CommandMetrics.formatNanos(entry.wallNanos.sum()), 10);
+            PsCommand.padLeft(line, metrics.measuresCpu() ? CommandMetrics.formatNanos(entry.cpuNanos.sum()) : "-", 10);
+            PsCommand.padLeft(line, metrics.measuresAllocations()
+                    ? ListCommand.getFileSize(entry.allocatedBytes.sum()) : "-", 11);
+            PsCommand.padLeft(line, ListCommand.getFileSize(entry.bytesRead.sum()), 11);
+            PsCommand.padLeft(line, ListCommand.getFileSize(entry.bytesWritten.sum()), 11);
+            context.out.println(line);
+            shown++;
+        }
+        if (shown == 0) {
+            context.out.println("No commands recorded yet.");
+        }
+        return SUCCESS;
+    }
+}
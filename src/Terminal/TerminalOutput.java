@@ -0,0 +1,257 @@
+package Terminal;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Formatter;
+
+/**
+ * Buffered byte sink all commands write through. Text is encoded to UTF-8 straight into
+ * a reusable buffer and only handed to the channel when the buffer is full or on an
+ * explicit {@link #flush()}, so large outputs cost one syscall per buffer, not per line.
+ * Not thread-safe: one command writes to one instance at a time.
+ */
+final class TerminalOutput extends OutputStream implements WritableByteChannel {
+    static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    // System.console() gibt es nur, wenn Ein- und Ausgabe ein Terminal sind, nicht bei > oder |
+    private static final boolean INTERACTIVE = System.console() != null;
+
+    private static TerminalOutput console;
+    private static TerminalOutput errorConsole;
+
+    private final WritableByteChannel target;
+    private final boolean ownsTarget;
+    private final byte[] buffer;
+    private final ByteBuffer wrapped;
+    private int position;
+    private long flushed;
+
+    private final StringBuilder formatBuffer = new StringBuilder();
+    private final Formatter formatter = new Formatter(formatBuffer);
+
+    TerminalOutput(WritableByteChannel target, int bufferSize) {
+        this(target, true, bufferSize);
+    }
+
+    private TerminalOutput(WritableByteChannel target, boolean ownsTarget, int bufferSize) {
+        this.target = target;
+        this.ownsTarget = ownsTarget;
+        this.buffer = new byte[bufferSize];
+        this.wrapped = ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * The process-wide sink for file descriptor 1. It is never closed.
+     */
+    static synchronized TerminalOutput console() {
+        if (console == null) {
+            console = new TerminalOutput(new FileOutputStream(FileDescriptor.out).getChannel(), false, DEFAULT_BUFFER_SIZE);
+        }
+        return console;
+    }
+
+    /**
+     * The process-wide sink for file descriptor 2. It is never closed.
+     */
+    static synchronized TerminalOutput errorConsole() {
+        if (errorConsole == null) {
+            errorConsole = new TerminalOutput(new FileOutputStream(FileDescriptor.err).getChannel(), false, 8 * 1024);
+        }
+        return errorConsole;
+    }
+
+    /**
+     * Another sink on the same channel with its own buffer, for a command that runs
+     * concurrently with the owner of this one. Closing it only flushes it.
+     */
+    TerminalOutput share(int bufferSize) {
+        return new TerminalOutput(target, false, bufferSize);
+    }
+
+    /**
+     * Whether this writes to the terminal itself, so escape sequences like colours make sense.
+     * False for standard output redirected to a file or a pipe outside the terminal.
+     */
+    boolean isConsole() {
+        return this == console && INTERACTIVE;
+    }
+
+    /**
+     * Bytes written to this sink so far, including those still in the buffer.
+     */
+    long written() {
+        return flushed + position;
+    }
+
+    void print(CharSequence text) {
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                ensure(1);
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                ensure(2);
+                buffer[position++] = (byte) (0xc0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                ensure(4);
+                buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                // Einzelnes Surrogat ist kein gültiges Zeichen
+                ensure(1);
+                buffer[position++] = '?';
+            } else {
+                ensure(3);
+                buffer[position++] = (byte) (0xe0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+    }
+
+    void print(char c) {
+        if (c < 0x80) {
+            ensure(1);
+            buffer[position++] = (byte) c;
+        } else {
+            print(String.valueOf(c));
+        }
+    }
+
+    void print(long value) {
+        if (value == Long.MIN_VALUE) {
+            print(Long.toString(value));
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int start = position;
+        do {
+            buffer[position++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        // Ziffern stehen rückwärts im Puffer
+        for (int i = start, j = position - 1; i < j; i++, j--) {
+            byte tmp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = tmp;
+        }
+    }
+
+    void println(CharSequence text) {
+        print(text);
+        println();
+    }
+
+    void println(long value) {
+        print(value);
+        println();
+    }
+
+    void println() {
+        ensure(1);
+        buffer[position++] = '\n';
+    }
+
+    void printf(String format, Object... args) {
+        formatBuffer.setLength(0);
+        formatter.format(format, args);
+        print(formatBuffer);
+    }
+
+    @Override
+    public void write(int b) {
+        ensure(1);
+        buffer[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        if (length >= buffer.length) {
+            // Große Blöcke am Puffer vorbei schreiben
+            flush();
+            writeFully(ByteBuffer.wrap(bytes, offset, length));
+            return;
+        }
+        ensure(length);
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    /**
+     * Writes the remaining bytes of {@code source}. Large (e.g. memory-mapped) buffers go to
+     * the channel directly without being copied into the internal buffer.
+     */
+    @Override
+    public int write(ByteBuffer source) {
+        int length = source.remaining();
+        if (length >= buffer.length / 2) {
+            flush();
+            writeFully(source);
+            return length;
+        }
+        ensure(length);
+        source.get(buffer, position, length);
+        position += length;
+        return length;
+    }
+
+    @Override
+    public void flush() {
+        if (position == 0) {
+            return;
+        }
+        wrapped.clear().limit(position);
+        position = 0;
+        writeFully(wrapped);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return target.isOpen();
+    }
+
+    /**
+     * Flushes the buffer. The console channel and shared channels stay open.
+     */
+    @Override
+    public void close() {
+        flush();
+        if (ownsTarget) {
+            try {
+                target.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void ensure(int length) {
+        if (buffer.length - position < length) {
+            flush();
+        }
+    }
+
+    private void writeFully(ByteBuffer source) {
+        flushed += source.remaining();
+        try {
+            while (source.hasRemaining()) {
+                target.write(source);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
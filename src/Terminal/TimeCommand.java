@@ -0,0 +1,61 @@
+package Terminal;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * {@code time}: runs a command and reports its wall time, CPU time, allocated bytes and
+ * bytes read and written. At the start of a command line the {@link CommandRunner} times
+ * the whole pipeline; this command handles {@code time} inside one stage of a pipeline. The
+ * command is recorded in {@code stats} once, under its own name, not under {@code time}.
+ */
+final class TimeCommand implements Command {
+    static final String NAME = "time";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"time <command>\tRun a command and show the time and memory it used"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: time <command>",
+                "Run the command (with its pipes and redirections when time starts the line) and",
+                "print to the error output:",
+                "  real    - Elapsed time",
+                "  cpu     - CPU time of the terminal",
+                "  alloc   - Bytes allocated on the heap",
+                "  read    - Bytes read from files and the input (all stages of a pipeline)",
+                "  written - Bytes written to the output and to files",
+                "See stats for figures over all commands run so far."
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) throws IOException {
+        List<String> words = arguments.operands;
+        // "time time befehl" misst nur einmal
+        int first = 0;
+        while (first < words.size() && words.get(first).equals(NAME)) {
+            first++;
+        }
+        CommandMetrics metrics = CommandMetrics.get();
+        CommandMetrics.Measurement measurement = metrics.start(context);
+        int status = SUCCESS;
+        if (first < words.size()) {
+            // Dieselbe Messung zeichnet den Befehl auf, time selbst erscheint nicht in stats
+            status = context.session.registry.execute(context, words.subList(first, words.size()), measurement);
+        } else {
+            metrics.stop(measurement);
+        }
+        context.out.flush();
+        metrics.report(context.err, measurement);
+        return status;
+    }
+}
@@ -0,0 +1,562 @@
+package Terminal;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@code top}: shows the busiest processes, the load of the host and the state of the
+ * terminal's own JVM, refreshed at a fixed interval. Process CPU times and host counters
+ * come from {@code /proc} where there is one, otherwise from {@link ProcessHandle}; the JVM
+ * figures come from the management beans. On the terminal the screen is redrawn in place with ANSI
+ * escape sequences; otherwise every sample is printed below the previous one.
+ * <p>
+ * CPU usage is the difference between two samples. Samples are kept in primitive arrays
+ * sorted by PID that are swapped and reused, and all {@code /proc} files are read into one
+ * reused buffer, so no per-process sample objects pile up. Opening the files still costs a
+ * path, a channel and the directory entry's name per process and sample. Names and memory
+ * are only looked up for the rows shown.
+ */
+final class TopCommand implements Command {
+    private static final String HOME = "\u001B[H";
+    private static final String CLEAR_SCREEN = "\u001B[2J";
+    private static final String CLEAR_LINE = "\u001B[K";
+    private static final String CLEAR_BELOW = "\u001B[J";
+    private static final String HIDE_CURSOR = "\u001B[?25l";
+    private static final String SHOW_CURSOR = "\u001B[?25h";
+
+    private static final Path PROC = Paths.get("/proc");
+    // USER_HZ: Linux gibt Zeiten in /proc unabhängig vom Kernel-Takt in 1/100 s an
+    private static final long NANOS_PER_TICK = TimeUnit.SECONDS.toNanos(1) / 100;
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final double MIN_DELAY = 0.1;
+    private static final int DEFAULT_ROWS = 15;
+    // Befehle kürzen, damit eine Zeile auf dem Bildschirm nicht umbricht
+    private static final int COMMAND_WIDTH = 40;
+    private static final DateTimeFormatter CLOCK = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final OptionSpec options = new OptionSpec().values("dnm");
+
+    @Override
+    public String name() {
+        return "top";
+    }
+
+    @Override
+    public OptionSpec options() {
+        return options;
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"top [-d seconds] [-n samples] [-m rows]\tMonitor processes, host and JVM resources"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: top [-d seconds] [-n samples] [-m rows]",
+                "Show the processes using the most CPU, the CPU and memory use of the host and the",
+                "heap, threads and garbage collections of this terminal, refreshed every second.",
+                "Press Enter to quit. When the output is not the terminal, one sample is printed",
+                "unless -n says otherwise.",
+                "Options:",
+                "  -d seconds - Time between samples (at least " + MIN_DELAY + ")",
+                "  -n samples - Stop after this many samples",
+                "  -m rows    - Number of processes to show (default " + DEFAULT_ROWS + ")"
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        double delay = 1;
+        long samples;
+        int rows = DEFAULT_ROWS;
+        boolean redraw = context.out.isConsole();
+        // isConsole: auch die Eingabe ist das Terminal, also kann Enter beenden
+        boolean keyboard = redraw;
+        try {
+            if (arguments.has('d')) {
+                delay = Double.parseDouble(arguments.value('d'));
+            }
+            samples = arguments.has('n') ? Long.parseLong(arguments.value('n')) : keyboard ? Long.MAX_VALUE : 1;
+            if (arguments.has('m')) {
+                rows = Integer.parseInt(arguments.value('m'));
+            }
+        } catch (NumberFormatException e) {
+            context.err.println("Invalid number: " + e.getMessage());
+            return USAGE;
+        }
+        if (!(delay >= MIN_DELAY) || samples < 1 || rows < 0) {
+            context.err.println("Invalid value: the delay must be at least " + MIN_DELAY
+                    + " seconds, samples and rows must be positive.");
+            return USAGE;
+        }
+
+        long delayNanos = (long) (delay * TimeUnit.SECONDS.toNanos(1));
+        Sampler sampler = new Sampler();
+        sampler.sample();
+        if (redraw) {
+            context.out.print(HIDE_CURSOR);
+            context.out.print(HOME);
+            context.out.print(CLEAR_SCREEN);
+        }
+        long deadline = System.nanoTime();
+        try {
+            for (long i = 0; i < samples; i++) {
+                // Feste Abstände: die Dauer einer Probe verschiebt die nächste nicht
+                deadline += delayNanos;
+                if (waitForNextSample(deadline, keyboard)) {
+                    break;
+                }
+                sampler.sample();
+                if (redraw) {
+                    context.out.print(HOME);
+                } else if (i > 0) {
+                    context.out.println();
+                }
+                sampler.render(context.out, rows, redraw);
+                if (redraw) {
+                    context.out.print(CLEAR_BELOW);
+                }
+                context.out.flush();
+            }
+        } catch (IOException e) {
+            context.err.println("Error reading input: " + e.getMessage());
+            return FAILURE;
+        } finally {
+            if (redraw) {
+                context.out.print(SHOW_CURSOR);
+                context.out.flush();
+            }
+        }
+        return SUCCESS;
+    }
+
+    /**
+     * Sleeps until the next sample is due at {@code deadline} ({@link System#nanoTime()}),
+     * checking the keyboard now and then.
+     *
+     * @return whether the user pressed Enter
+     */
+    private static boolean waitForNextSample(long deadline, boolean keyboard) throws IOException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (keyboard && System.in.available() > 0) {
+                // Die Zeile verbrauchen, damit sie nicht als nächster Befehl gelesen wird
+                while (System.in.available() > 0 && System.in.read() != '\n') {
+                }
+                return true;
+            }
+            LockSupport.parkNanos(keyboard ? Math.min(remaining, POLL_NANOS) : remaining);
+            if (Thread.interrupted()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Two samples of everything shown, the current one and the one before.
+     */
+    private static final class Sampler {
+        private final boolean proc = Files.isDirectory(PROC);
+        private final byte[] fileBuffer = new byte[16 * 1024];
+        private final ByteBuffer readBuffer = ByteBuffer.wrap(fileBuffer);
+        private final Path stat = PROC.resolve("stat");
+        private final Path meminfo = PROC.resolve("meminfo");
+        private final Path loadavg = PROC.resolve("loadavg");
+        private final long self = ProcessHandle.current().pid();
+
+        // Prozesse nach PID sortiert; die Felder des vorigen Durchgangs werden wiederverwendet
+        private long[] pids = new long[512];
+        private long[] cpuNanos = new long[512];
+        private long[] previousPids = new long[512];
+        private long[] previousCpuNanos = new long[512];
+        private long[] deltaNanos = new long[512];
+        private int count;
+        private int previousCount;
+        private long sampleTime;
+        private long previousSampleTime;
+        private int[] top = new int[DEFAULT_ROWS];
+
+        // user, nice, system, idle, iowait, irq, softirq, steal
+        private long[] hostTicks = new long[8];
+        private long[] previousHostTicks = new long[8];
+        private long memoryTotal;
+        private long memoryAvailable;
+        private String load;
+
+        private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        private final long[] gcCounts = new long[collectors.size()];
+        private final long[] gcTimes = new long[collectors.size()];
+        private final long[] previousGcCounts = new long[collectors.size()];
+        private final long[] previousGcTimes = new long[collectors.size()];
+
+        void sample() {
+            long[] swap = previousPids;
+            previousPids = pids;
+            pids = swap;
+            swap = previousCpuNanos;
+            previousCpuNanos = cpuNanos;
+            cpuNanos = swap;
+            previousCount = count;
+            previousSampleTime = sampleTime;
+            swap = previousHostTicks;
+            previousHostTicks = hostTicks;
+            hostTicks = swap;
+            System.arraycopy(gcCounts, 0, previousGcCounts, 0, gcCounts.length);
+            System.arraycopy(gcTimes, 0, previousGcTimes, 0, gcTimes.length);
+
+            sampleTime = System.nanoTime();
+            count = 0;
+            if (proc) {
+                sampleProcesses();
+            } else {
+                ProcessHandle.allProcesses().forEach(process -> addProcess(process.pid(),
+                        process.info().totalCpuDuration().map(Duration::toNanos).orElse(0L)));
+            }
+            sortByPid();
+            computeDeltas();
+
+            for (int i = 0; i < collectors.size(); i++) {
+                gcCounts[i] = collectors.get(i).getCollectionCount();
+                gcTimes[i] = collectors.get(i).getCollectionTime();
+            }
+            if (proc) {
+                sampleHost();
+            }
+        }
+
+        /**
+         * Reads the CPU times of all processes from /proc/PID/stat, one small read per
+         * process. {@link ProcessHandle.Info} would read several files per process and take
+         * most of the time of a sample.
+         */
+        private void sampleProcesses() {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(PROC)) {
+                for (Path entry : entries) {
+                    String name = entry.getFileName().toString();
+                    if (name.isEmpty() || name.charAt(0) < '1' || name.charAt(0) > '9') {
+                        continue;
+                    }
+                    long cpu = processTicks(entry.resolve("stat"));
+                    if (cpu >= 0) {
+                        addProcess(Long.parseLong(name), cpu * NANOS_PER_TICK);
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                // Eine unvollständige Probe ist besser als keine
+            }
+        }
+
+        /**
+         * User plus system time in clock ticks from a /proc/PID/stat file, or -1 if the
+         * process is gone. The fields are counted after the last ')', since the command
+         * name in parentheses may contain blanks.
+         */
+        private long processTicks(Path file) {
+            int length = read(file);
+            int position = length;
+            while (position > 0 && fileBuffer[position - 1] != ')') {
+                position--;
+            }
+            if (position == 0) {
+                return -1;
+            }
+            // Nach dem Namen: state ppid pgrp session tty_nr tpgid flags minflt cminflt majflt cmajflt utime stime
+            long ticks = 0;
+            for (int field = 0; field <= 12 && position < length; field++) {
+                while (position < length && fileBuffer[position] == ' ') {
+                    position++;
+                }
+                long value = 0;
+                while (position < length && fileBuffer[position] != ' ') {
+                    value = value * 10 + (fileBuffer[position++] - '0');
+                }
+                if (field >= 11) {
+                    ticks += value;
+                }
+            }
+            return ticks;
+        }
+
+        private void addProcess(long pid, long cpu) {
+            if (count == pids.length) {
+                pids = Arrays.copyOf(pids, count * 2);
+                cpuNanos = Arrays.copyOf(cpuNanos, count * 2);
+                previousPids = Arrays.copyOf(previousPids, count * 2);
+                previousCpuNanos = Arrays.copyOf(previousCpuNanos, count * 2);
+            }
+            pids[count] = pid;
+            cpuNanos[count] = cpu;
+            count++;
+        }
+
+        /**
+         * Insertion sort on both arrays: the list comes from /proc in PID order already,
+         * so this is one pass in practice.
+         */
+        private void sortByPid() {
+            for (int i = 1; i < count; i++) {
+                long pid = pids[i];
+                long cpu = cpuNanos[i];
+                int j = i - 1;
+                while (j >= 0 && pids[j] > pid) {
+                    pids[j + 1] = pids[j];
+                    cpuNanos[j + 1] = cpuNanos[j];
+                    j--;
+                }
+                pids[j + 1] = pid;
+                cpuNanos[j + 1] = cpu;
+            }
+        }
+
+        /**
+         * Merges the current sample with the previous one, both sorted by PID. A process
+         * that is new has used all of its CPU time since the previous sample.
+         */
+        private void computeDeltas() {
+            if (deltaNanos.length < count) {
+                deltaNanos = new long[pids.length];
+            }
+            int j = 0;
+            for (int i = 0; i < count; i++) {
+                while (j < previousCount && previousPids[j] < pids[i]) {
+                    j++;
+                }
+                long before = j < previousCount && previousPids[j] == pids[i] ? previousCpuNanos[j] : 0;
+                deltaNanos[i] = Math.max(0, cpuNanos[i] - before);
+            }
+        }
+
+        private void sampleHost() {
+            int length = read(stat);
+            // Erste Zeile: "cpu  user nice system idle iowait irq softirq steal ..."
+            int position = 3;
+            for (int i = 0; i < hostTicks.length; i++) {
+                while (position < length && fileBuffer[position] == ' ') {
+                    position++;
+                }
+                long value = 0;
+                while (position < length && fileBuffer[position] >= '0' && fileBuffer[position] <= '9') {
+                    value = value * 10 + (fileBuffer[position++] - '0');
+                }
+                hostTicks[i] = value;
+            }
+
+            length = read(meminfo);
+            memoryTotal = kilobytes(length, "MemTotal:") * 1024;
+            memoryAvailable = kilobytes(length, "MemAvailable:") * 1024;
+
+            length = read(loadavg);
+            int end = 0;
+            for (int fields = 0; end < length && fields < 3; end++) {
+                if (fileBuffer[end] == ' ' && ++fields == 3) {
+                    break;
+                }
+            }
+            load = new String(fileBuffer, 0, end, StandardCharsets.US_ASCII).replace(" ", ", ");
+        }
+
+        /**
+         * Reads a small file from /proc into the shared buffer.
+         *
+         * @return its length, 0 if it cannot be read
+         */
+        private int read(Path file) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                readBuffer.clear();
+                while (readBuffer.hasRemaining() && channel.read(readBuffer) > 0) {
+                }
+                return readBuffer.position();
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        /**
+         * The number after {@code key} in /proc/meminfo, in kB.
+         */
+        private long kilobytes(int length, String key) {
+            int at = find(key, length);
+            if (at < 0) {
+                return 0;
+            }
+            long value = 0;
+            for (int i = at + key.length(); i < length && fileBuffer[i] != '\n'; i++) {
+                if (fileBuffer[i] >= '0' && fileBuffer[i] <= '9') {
+                    value = value * 10 + (fileBuffer[i] - '0');
+                }
+            }
+            return value;
+        }
+
+        private int find(String key, int length) {
+            outer:
+            for (int i = 0; i + key.length() <= length; i++) {
+                for (int j = 0; j < key.length(); j++) {
+                    if (fileBuffer[i + j] != key.charAt(j)) {
+                        continue outer;
+                    }
+                }
+                return i;
+            }
+            return -1;
+        }
+
+        void render(TerminalOutput out, int rows, boolean redraw) {
+            long elapsed = Math.max(sampleTime - previousSampleTime, 1);
+            StringBuilder line = new StringBuilder(128);
+
+            line.append("top - ").append(LocalTime.now().format(CLOCK)).append("  ").append(count).append(" processes");
+            if (load != null) {
+                line.append("  load average: ").append(load);
+            } else {
+                double average = ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
+                if (average >= 0) {
+                    line.append("  load average: ").append(String.format("%.2f", average));
+                }
+            }
+            emit(out, line, redraw);
+
+            if (proc) {
+                long total = 0;
+                for (int i = 0; i < hostTicks.length; i++) {
+                    total += hostTicks[i] - previousHostTicks[i];
+                }
+                total = Math.max(total, 1);
+                line.setLength(0);
+                line.append(String.format("CPU: %5.1f%% user %5.1f%% system %5.1f%% iowait %5.1f%% idle",
+                        percent(hostTicks[0] + hostTicks[1] - previousHostTicks[0] - previousHostTicks[1], total),
+                        percent(hostTicks[2] + hostTicks[5] + hostTicks[6] - previousHostTicks[2] - previousHostTicks[5]
+                                - previousHostTicks[6], total),
+                        percent(hostTicks[4] - previousHostTicks[4], total),
+                        percent(hostTicks[3] - previousHostTicks[3], total)));
+                emit(out, line, redraw);
+                line.setLength(0);
+                line.append("Memory: ").append(ListCommand.getFileSize(memoryTotal)).append(" total, ")
+                        .append(ListCommand.getFileSize(memoryTotal - memoryAvailable)).append(" used, ")
+                        .append(ListCommand.getFileSize(memoryAvailable)).append(" available");
+                emit(out, line, redraw);
+            }
+
+            MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            int selfIndex = Arrays.binarySearch(pids, 0, count, self);
+            line.setLength(0);
+            line.append("JVM: heap ").append(ListCommand.getFileSize(heap.getUsed())).append(" used / ")
+                    .append(ListCommand.getFileSize(heap.getCommitted())).append(" committed / ")
+                    .append(heap.getMax() < 0 ? "no limit" : ListCommand.getFileSize(heap.getMax())).append(" max, ")
+                    .append(ManagementFactory.getThreadMXBean().getThreadCount()).append(" threads");
+            if (selfIndex >= 0) {
+                line.append(String.format(", CPU %.1f%%", percent(deltaNanos[selfIndex], elapsed)));
+            }
+            emit(out, line, redraw);
+            for (int i = 0; i < collectors.size(); i++) {
+                long collections = gcCounts[i] - previousGcCounts[i];
+                long millis = gcTimes[i] - previousGcTimes[i];
+                line.setLength(0);
+                line.append("GC ").append(collectors.get(i).getName()).append(": ").append(gcCounts[i])
+                        .append(" collections, ").append(gcTimes[i]).append(" ms total");
+                if (collections > 0) {
+                    line.append(String.format(" (+%d, %d ms, %.1f ms per pause)", collections, millis,
+                            millis / (double) collections));
+                }
+                emit(out, line, redraw);
+            }
+
+            line.setLength(0);
+            emit(out, line, redraw);
+            line.append("    PID USER       %CPU        RES      TIME  COMMAND");
+            emit(out, line, redraw);
+            int shown = selectTop(rows);
+            for (int r = 0; r < shown; r++) {
+                int i = top[r];
+                // Namen und Speicher nur für die angezeigten Zeilen
+                ProcessInfo info = ProcessHandle.of(pids[i]).map(ProcessInfo::of).orElse(null);
+                line.setLength(0);
+                PsCommand.padLeft(line, Long.toString(pids[i]), 7).append(' ');
+                PsCommand.padRight(line, info == null || info.user == null ? "?" : PsCommand.abbreviate(info.user, 8), 8);
+                PsCommand.padLeft(line, String.format("%.1f", percent(deltaNanos[i], elapsed)), 7).append(' ');
+                long resident = residentBytes(pids[i]);
+                PsCommand.padLeft(line, resident < 0 ? "-" : ListCommand.getFileSize(resident), 10).append(' ');
+                PsCommand.padLeft(line, PsCommand.formatCpu(cpuNanos[i]), 9).append("  ");
+                String command = info == null ? "?" : info.name;
+                line.append(redraw && command.length() > COMMAND_WIDTH ? command.substring(0, COMMAND_WIDTH) : command);
+                emit(out, line, redraw);
+            }
+        }
+
+        /**
+         * Indices of the {@code rows} processes with the largest CPU deltas, largest first,
+         * by insertion into a short array instead of sorting all processes.
+         *
+         * @return how many there are
+         */
+        private int selectTop(int rows) {
+            if (top.length < rows) {
+                top = new int[rows];
+            }
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                int at = size;
+                while (at > 0 && isBusier(i, top[at - 1])) {
+                    at--;
+                }
+                if (at >= rows) {
+                    continue;
+                }
+                int end = Math.min(size, rows - 1);
+                System.arraycopy(top, at, top, at + 1, end - at);
+                top[at] = i;
+                size = Math.min(size + 1, rows);
+            }
+            return size;
+        }
+
+        private boolean isBusier(int a, int b) {
+            return deltaNanos[a] != deltaNanos[b] ? deltaNanos[a] > deltaNanos[b] : cpuNanos[a] > cpuNanos[b];
+        }
+
+        /**
+         * Resident memory from /proc/PID/status, or -1 where there is none.
+         */
+        private long residentBytes(long pid) {
+            if (!proc) {
+                return -1;
+            }
+            int length = read(PROC.resolve(Long.toString(pid)).resolve("status"));
+            long kilobytes = kilobytes(length, "VmRSS:");
+            return length == 0 ? -1 : kilobytes * 1024;
+        }
+
+        private static double percent(long part, long total) {
+            return part * 100.0 / total;
+        }
+
+        private static void emit(TerminalOutput out, CharSequence line, boolean redraw) {
+            out.print(line);
+            if (redraw) {
+                // Reste der vorigen, längeren Zeile löschen
+                out.print(CLEAR_LINE);
+            }
+            out.println();
+        }
+    }
+}
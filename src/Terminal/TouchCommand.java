@@ -0,0 +1,51 @@
+package Terminal;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * {@code touch}: creates empty files.
+ */
+final class TouchCommand implements Command {
+    @Override
+    public String name() {
+        return "touch";
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"touch [file]\tCreate a file"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{"Usage: touch [file...]", "Create a file."};
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        if (arguments.operands.isEmpty()) {
+            context.err.println("Usage: touch <file>");
+            return USAGE;
+        }
+
+        int status = SUCCESS;
+        for (String fileName : arguments.operands) {
+            File file = context.resolve(fileName).toFile();
+            String filePath = file.getPath();
+            try {
+                if (file.createNewFile()) {
+                    MetadataCache.get().invalidate(file.toPath());
+                    context.out.println("File created: " + filePath);
+                } else {
+                    context.err.println("Failed to create file: " + filePath);
+                    status = FAILURE;
+                }
+            } catch (IOException e) {
+                context.err.println("Failed to create file: " + e.getMessage());
+                status = FAILURE;
+            }
+        }
+        return status;
+    }
+}
@@ -0,0 +1,102 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * {@code tree}: prints the directory hierarchy, listed in parallel by the {@link DirectoryWalker}.
+ */
+final class TreeCommand implements Command {
+    private final OptionSpec options = new OptionSpec().flags("l").values("LI");
+
+    @Override
+    public String name() {
+        return "tree";
+    }
+
+    @Override
+    public OptionSpec options() {
+        return options;
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{"tree [depth] [directory]\tPrint the directory hierarchy"};
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: tree [-L depth | depth] [-l] [-I pattern] [directory]",
+                "Print the directory hierarchy, sorted by name.",
+                "Options:",
+                "  -L <depth> - Descend at most <depth> levels (a bare number works too)",
+                "  -l - Follow symbolic links to directories; loops are detected and not followed",
+                "  -I <pattern> - Skip entries whose name matches the glob pattern"
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        int maxDepth = Integer.MAX_VALUE;
+        String directory = "";
+
+        String depth = arguments.value('L');
+        if (depth != null) {
+            if (!depth.matches("\\d+")) {
+                context.err.println("Invalid depth for tree: " + depth);
+                return USAGE;
+            }
+            maxDepth = Integer.parseInt(depth);
+        }
+        for (String operand : arguments.operands) {
+            if (operand.matches("\\d+")) {
+                // Eine Zahl allein ist die maximale Tiefe
+                maxDepth = Integer.parseInt(operand);
+            } else if (!operand.isEmpty()) {
+                directory = operand;
+            }
+        }
+
+        Path root = context.resolve(directory);
+        if (!MetadataCache.get().isDirectory(root)) {
+            context.err.println("Directory not found: " + directory);
+            return FAILURE;
+        }
+
+        DirectoryWalker walker = new DirectoryWalker(maxDepth, arguments.has('l'), true);
+        for (String glob : arguments.values('I')) {
+            walker.prune(glob);
+        }
+        try {
+            printDirectoryTree(context.out, walker.walk(root));
+            return SUCCESS;
+        } catch (IOException e) {
+            context.err.println("Failed to list directory: " + e.getMessage());
+            return FAILURE;
+        }
+    }
+
+    private static void printDirectoryTree(TerminalOutput out, DirectoryWalker.Node node) {
+        printIndentation(out, node.depth);
+        if (node.isDirectory()) {
+            // Ausgabe des aktuellen Verzeichnisses
+            out.print(node.name);
+            out.println(node.isCycle() ? "/ [recursive, not followed]" : "/");
+
+            // Unterverzeichnisse werden schon parallel gelistet, hier nur in Reihenfolge ausgeben
+            for (DirectoryWalker.Node child : node.children()) {
+                printDirectoryTree(out, child);
+            }
+        } else {
+            // Ausgabe der Datei
+            out.println(node.name);
+        }
+    }
+
+    private static void printIndentation(TerminalOutput out, int depth) {
+        for (int i = 0; i < depth; i++) {
+            out.print("  "); // Leerzeichen zur Einrückung
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+
+/**
+ * {@code unzip}: lists or extracts zip archives with the {@link UnzipEngine}.
+ */
+final class UnzipCommand implements Command {
+
+    private static final DateTimeFormatter LIST_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+
+    private final OptionSpec options = new OptionSpec().flags("lov").values("d");
+
+    @Override
+    public String name() {
+        return "unzip";
+    }
+
+    @Override
+    public OptionSpec options() {
+        return options;
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{
+                "unzip [archive] [entry...]\tExtract a zip archive or single entries",
+                "unzip -l [archive]\tList the contents of a zip archive"
+        };
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: unzip [-l] [-o] [-v] [-d directory] [archive] [entry...]",
+                "Extract a zip archive into the current directory. If entries are given, only these",
+                "files or directories are extracted. Entries are extracted in parallel and checked",
+                "against their size and CRC; entries that would land outside the target are refused.",
+                "Existing files are not overwritten unless -o is given.",
+                "Options:",
+                "  -l - List the entries instead of extracting them",
+                "  -o - Overwrite existing files",
+                "  -v - Print every extracted entry",
+                "  -d directory - Extract into this directory (created if necessary)"
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        if (arguments.operands.isEmpty()) {
+            context.err.println("Missing argument for unzip command.");
+            return USAGE;
+        }
+        String archiveName = arguments.operand(0);
+        Path archive = context.resolve(archiveName);
+        if (!Files.isRegularFile(archive)) {
+            context.err.println("Archive not found: " + archiveName);
+            return FAILURE;
+        }
+        List<String> names = arguments.operands.subList(1, arguments.operands.size());
+
+        if (arguments.has('l')) {
+            return list(context, archive, names);
+        }
+
+        UnzipEngine.Options unzipOptions = new UnzipEngine.Options();
+        unzipOptions.overwrite = arguments.has('o');
+        if (arguments.has('v')) {
+            unzipOptions.verbose = context.out::println;
+        }
+        Path target = arguments.has('d') ? context.resolve(arguments.value('d')) : context.directory();
+
+        UnzipEngine.Result result;
+        try {
+            result = UnzipEngine.extract(archive, target, names, unzipOptions);
+        } catch (IOException e) {
+            context.err.println("Failed to extract " + archiveName + ": " + e.getMessage());
+            return FAILURE;
+        }
+        context.io.addRead(result.compressedBytes);
+        context.io.addWritten(result.bytes);
+
+        context.out.printf("Extracted %d file(s), %d director%s, %s in %.2f s (%s)%n",
+                result.files, result.directories, result.directories == 1 ? "y" : "ies",
+                ListCommand.getFileSize(result.bytes), ListCommand.getSeconds(result.nanos),
+                ListCommand.getThroughput(result.bytes, result.nanos));
+        return ListCommand.printErrors(context, result.errors);
+    }
+
+    private static int list(CommandContext context, Path archive, List<String> names) {
+        List<String> errors = new ArrayList<>();
+        List<ZipEntry> entries;
+        try {
+            entries = UnzipEngine.list(archive, names, errors);
+        } catch (IOException e) {
+            context.err.println("Failed to read " + archive + ": " + e.getMessage());
+            return FAILURE;
+        }
+
+        TerminalOutput out = context.out;
+        out.println("     Length        Date  Time   Name");
+        out.println("-----------  ---------- -----   ----");
+        long total = 0;
+        for (ZipEntry entry : entries) {
+            long size = Math.max(entry.getSize(), 0);
+            total += size;
+            out.printf("%11d  %s   %s%n", size,
+                    entry.getLastModifiedTime() == null ? "                " : LIST_FORMAT.format(entry.getLastModifiedTime().toInstant()),
+                    entry.getName());
+        }
+        out.println("-----------                     -------");
+        out.printf("%11d                     %d entr%s%n", total, entries.size(), entries.size() == 1 ? "y" : "ies");
+        return ListCommand.printErrors(context, errors);
+    }
+}
@@ -0,0 +1,272 @@
+package Terminal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * Extracts zip archives. The central directory is read once through {@link ZipFile}, which
+ * gives random access to every entry, so listing an archive or extracting a single entry
+ * never inflates anything else. Directories are created on the calling thread; the files are
+ * inflated and written concurrently on the {@link IoPool}, bounded like the {@link CopyEngine}.
+ * Every file is checked against the size and CRC-32 of the central directory and deleted
+ * again if it does not match. Entry names that would end up outside the target directory
+ * ("zip slip") are refused.
+ */
+final class UnzipEngine {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Encoding of old archives that do not mark their names as UTF-8. */
+    private static final Charset LEGACY_CHARSET = Charset.forName("IBM437");
+
+    private UnzipEngine() {
+    }
+
+    static final class Options {
+        /** Replace existing files instead of reporting them. */
+        boolean overwrite;
+        /** Called on the calling thread, in archive order, for every extracted entry. */
+        Consumer<String> verbose;
+    }
+
+    static final class Result {
+        long files;
+        long directories;
+        long bytes;
+        long compressedBytes;
+        long nanos;
+        final List<String> errors = new ArrayList<>();
+    }
+
+    private static final class FileExtraction {
+        final ZipEntry entry;
+        final Path target;
+        long bytes;
+        String error;
+
+        FileExtraction(ZipEntry entry, Path target) {
+            this.entry = entry;
+            this.target = target;
+        }
+    }
+
+    /**
+     * Opens {@code archive}, falling back to the legacy name encoding if the names are not UTF-8.
+     */
+    static ZipFile open(Path archive) throws IOException {
+        try {
+            return new ZipFile(archive.toFile(), StandardCharsets.UTF_8);
+        } catch (ZipException e) {
+            // Ältere Windows-Packer schreiben Namen in CP437 ohne UTF-8-Kennzeichen
+            try {
+                return new ZipFile(archive.toFile(), LEGACY_CHARSET);
+            } catch (ZipException ignored) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * The entries of {@code archive} in central directory order, limited to {@code names}
+     * (entries or directories) unless that is empty; names that match nothing are added to
+     * {@code errors}.
+     */
+    static List<ZipEntry> list(Path archive, List<String> names, List<String> errors) throws IOException {
+        try (ZipFile zip = open(archive)) {
+            return select(zip, names, errors);
+        }
+    }
+
+    /**
+     * Extracts {@code archive} into {@code target}, or only the entries and directories named
+     * in {@code names} if it is not empty. Failures are collected in the {@link Result}.
+     */
+    static Result extract(Path archive, Path target, List<String> names, Options options) throws IOException {
+        long start = System.nanoTime();
+        Result result = new Result();
+        Path root = target.toAbsolutePath().normalize();
+
+        try (ZipFile zip = open(archive)) {
+            List<ZipEntry> entries = select(zip, names, result.errors);
+            Deque<ForkJoinTask<FileExtraction>> pending = new ArrayDeque<>();
+            // Begrenzt, wie viele Einträge gleichzeitig entpackt werden oder auf die Auswertung warten
+            int maxPending = IoPool.parallelism() * 4;
+            List<Path> directories = new ArrayList<>();
+            List<ZipEntry> directoryEntries = new ArrayList<>();
+
+            Files.createDirectories(root);
+            for (ZipEntry entry : entries) {
+                Path path = root.resolve(entry.getName()).normalize();
+                if (!path.startsWith(root) || path.equals(root) && !entry.isDirectory()) {
+                    result.errors.add("Skipped entry outside the target directory: " + entry.getName());
+                    continue;
+                }
+
+                if (entry.isDirectory()) {
+                    try {
+                        if (!Files.isDirectory(path)) {
+                            Files.createDirectories(path);
+                            result.directories++;
+                        }
+                        directories.add(path);
+                        directoryEntries.add(entry);
+                        if (options.verbose != null) {
+                            options.verbose.accept("   creating: " + entry.getName());
+                        }
+                    } catch (IOException e) {
+                        result.errors.add("Failed to create directory " + path + ": " + e.getMessage());
+                    }
+                    continue;
+                }
+
+                try {
+                    // Nicht jeder Packer schreibt eigene Einträge für die Verzeichnisse
+                    Files.createDirectories(path.getParent());
+                } catch (IOException e) {
+                    result.errors.add("Failed to create directory " + path.getParent() + ": " + e.getMessage());
+                    continue;
+                }
+                pending.add(IoPool.get().submit(() -> extractFile(zip, entry, path, options.overwrite)));
+                while (pending.size() > maxPending) {
+                    finish(pending.poll().join(), options, result);
+                }
+            }
+            while (!pending.isEmpty()) {
+                finish(pending.poll().join(), options, result);
+            }
+
+            // Verzeichniszeiten erst zum Schluss, von innen nach außen
+            for (int i = directories.size() - 1; i >= 0; i--) {
+                setModifiedTime(directories.get(i), directoryEntries.get(i));
+            }
+        } finally {
+            MetadataCache.get().invalidate(root);
+        }
+
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private static List<ZipEntry> select(ZipFile zip, List<String> names, List<String> errors) {
+        List<ZipEntry> all = new ArrayList<>(zip.size());
+        zip.stream().forEach(all::add);
+        if (names.isEmpty()) {
+            return all;
+        }
+
+        Set<ZipEntry> selected = new LinkedHashSet<>();
+        for (String name : names) {
+            String directory = name.endsWith("/") ? name : name + "/";
+            boolean found = false;
+            for (ZipEntry entry : all) {
+                if (entry.getName().equals(name) || entry.getName().startsWith(directory)) {
+                    selected.add(entry);
+                    found = true;
+                }
+            }
+            if (!found) {
+                errors.add("Not found in archive: " + name);
+            }
+        }
+        // In der Reihenfolge des Archivs, damit Verzeichnisse vor ihrem Inhalt kommen
+        List<ZipEntry> result = new ArrayList<>();
+        for (ZipEntry entry : all) {
+            if (selected.contains(entry)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private static void finish(FileExtraction extraction, Options options, Result result) {
+        if (extraction.error != null) {
+            result.errors.add(extraction.error);
+            return;
+        }
+        result.files++;
+        result.bytes += extraction.bytes;
+        result.compressedBytes += Math.max(extraction.entry.getCompressedSize(), 0);
+        if (options.verbose != null) {
+            options.verbose.accept((extraction.entry.getMethod() == ZipEntry.STORED ? " extracting: " : "  inflating: ")
+                    + extraction.entry.getName());
+        }
+    }
+
+    private static FileExtraction extractFile(ZipFile zip, ZipEntry entry, Path target, boolean overwrite) {
+        FileExtraction extraction = new FileExtraction(entry, target);
+        OpenOption[] openOptions = overwrite
+                ? new OpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE}
+                : new OpenOption[]{StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE};
+        boolean created = false;
+        try (InputStream in = zip.getInputStream(entry);
+             OutputStream out = Files.newOutputStream(target, openOptions)) {
+            created = true;
+            // ZipFile selbst prüft die CRC nicht
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long size = 0;
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                crc.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+                size += read;
+            }
+            if (entry.getSize() >= 0 && size != entry.getSize()) {
+                extraction.error = "Size mismatch in " + entry.getName() + ": expected " + entry.getSize() + " bytes, got " + size;
+            } else if (entry.getCrc() >= 0 && crc.getValue() != entry.getCrc()) {
+                extraction.error = "CRC mismatch in " + entry.getName() + ": the archive is damaged";
+            }
+            extraction.bytes = size;
+        } catch (FileAlreadyExistsException e) {
+            extraction.error = "File already exists: " + target;
+            return extraction;
+        } catch (IOException e) {
+            extraction.error = "Failed to extract " + entry.getName() + ": " + e.getMessage();
+        }
+
+        if (extraction.error != null) {
+            if (created) {
+                // Keine halben oder beschädigten Dateien zurücklassen
+                try {
+                    Files.deleteIfExists(target);
+                } catch (IOException ignored) {
+                }
+            }
+        } else {
+            setModifiedTime(target, entry);
+        }
+        return extraction;
+    }
+
+    private static void setModifiedTime(Path path, ZipEntry entry) {
+        FileTime modified = entry.getLastModifiedTime();
+        if (modified == null) {
+            return;
+        }
+        try {
+            Files.setLastModifiedTime(path, modified);
+        } catch (IOException ignored) {
+            // Nur die Zeit, der Inhalt ist vollständig
+        }
+    }
+}
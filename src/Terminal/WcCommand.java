@@ -0,0 +1,166 @@
+package Terminal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code wc}: counts lines, words and bytes like GNU wc in the C locale, see {@link WcEngine}.
+ */
+final class WcCommand implements Command {
+    private final OptionSpec options = new OptionSpec().flags("lwc");
+
+    @Override
+    public String name() {
+        return "wc";
+    }
+
+    @Override
+    public OptionSpec options() {
+        return options;
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{
+                "wc [options] file...\tCount lines, words, and bytes in files",
+                "wc -w\tCount the number of words",
+                "wc -l\tCount the number of lines",
+                "wc -c\tCount the number of bytes"
+        };
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: wc [options] file...",
+                "Count the number of lines, words, and bytes in each file.",
+                "A total row is printed when more than one file is given.",
+                "Without files the input from a pipe is counted (e.g. ls | wc -l).",
+                "Options:",
+                "  -w - Count the number of words",
+                "  -l - Count the number of lines",
+                "  -c - Count the number of bytes"
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        boolean countLines = arguments.has('l');
+        boolean countWords = arguments.has('w');
+        boolean countBytes = arguments.has('c');
+        List<String> filePaths = arguments.operands;
+
+        if (filePaths.isEmpty() && context.in == null) {
+            context.err.println("Missing argument for wc command.");
+            return USAGE;
+        }
+
+        // Ohne Optionen wie GNU wc: Zeilen, Wörter und Bytes
+        if (!countLines && !countWords && !countBytes) {
+            countLines = true;
+            countWords = true;
+            countBytes = true;
+        }
+
+        if (filePaths.isEmpty()) {
+            try {
+                WcEngine.Counts counts = WcEngine.count(context.in);
+                // Wie GNU wc bei einer Pipe: feste Breite, kein Name
+                int columns = (countLines ? 1 : 0) + (countWords ? 1 : 0) + (countBytes ? 1 : 0);
+                String row = formatWcRow(counts, "", columns == 1 ? 1 : 7, countLines, countWords, countBytes);
+                context.out.println(row.substring(0, row.length() - 1));
+                return SUCCESS;
+            } catch (IOException e) {
+                context.err.println("Error reading input: " + e.getMessage());
+                return FAILURE;
+            }
+        }
+
+        List<String> names = new ArrayList<>();
+        List<WcEngine.Counts> results = new ArrayList<>();
+        WcEngine.Counts total = new WcEngine.Counts();
+        long regularSize = 0;
+        boolean onlyRegularFiles = true;
+        int status = SUCCESS;
+
+        for (String filePath : filePaths) {
+            File file = context.resolve(filePath).toFile();
+
+            if (!file.exists()) {
+                context.err.println("File not found: " + filePath);
+                status = FAILURE;
+                continue;
+            }
+            if (file.isDirectory()) {
+                context.err.println("Is a directory: " + filePath);
+                status = FAILURE;
+                continue;
+            }
+
+            try {
+                WcEngine.Counts counts;
+                if (countBytes && !countLines && !countWords && file.isFile()) {
+                    // Nur Bytes: die Größe reicht, der Inhalt muss nicht gelesen werden
+                    counts = new WcEngine.Counts();
+                    counts.bytes = file.length();
+                } else {
+                    counts = WcEngine.count(file.toPath());
+                    context.io.addRead(counts.bytes);
+                }
+                if (file.isFile()) {
+                    regularSize += file.length();
+                } else {
+                    onlyRegularFiles = false;
+                }
+                names.add(filePath);
+                results.add(counts);
+                total.add(counts);
+            } catch (IOException e) {
+                context.err.println("Error reading file: " + e.getMessage());
+                status = FAILURE;
+            }
+        }
+
+        // Spaltenbreite wie bei GNU wc: Stellen der Gesamtgröße, keine Auffüllung bei nur einer Zahl
+        int width = Long.toString(regularSize).length();
+        if (!onlyRegularFiles) {
+            width = Math.max(width, 7);
+        }
+        int columns = (countLines ? 1 : 0) + (countWords ? 1 : 0) + (countBytes ? 1 : 0);
+        if (columns == 1 && filePaths.size() == 1) {
+            width = 1;
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            context.out.println(formatWcRow(results.get(i), names.get(i), width, countLines, countWords, countBytes));
+        }
+        if (filePaths.size() > 1) {
+            context.out.println(formatWcRow(total, "total", width, countLines, countWords, countBytes));
+        }
+        return status;
+    }
+
+    private static String formatWcRow(WcEngine.Counts counts, String name, int width,
+                                      boolean countLines, boolean countWords, boolean countBytes) {
+        StringBuilder row = new StringBuilder();
+        String format = "%" + width + "d";
+        if (countLines) {
+            row.append(String.format(format, counts.lines));
+        }
+        if (countWords) {
+            if (row.length() > 0) {
+                row.append(' ');
+            }
+            row.append(String.format(format, counts.words));
+        }
+        if (countBytes) {
+            if (row.length() > 0) {
+                row.append(' ');
+            }
+            row.append(String.format(format, counts.bytes));
+        }
+        return row.append(' ').append(name).toString();
+    }
+}
@@ -0,0 +1,191 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts lines, words and bytes on raw bytes with the same rules as GNU wc in the C locale.
+ * Regular files are split into mapped chunks that are scanned in parallel on the common
+ * fork-join pool; words that straddle a chunk border are fixed up when the results are merged.
+ */
+final class WcEngine {
+    private static final long CHUNK_SIZE = 8L * 1024 * 1024;
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    // Byte-Klassen wie bei GNU wc mit LC_ALL=C
+    private static final byte NEUTRAL = 0;
+    private static final byte SPACE = 1;
+    private static final byte WORD = 2;
+    private static final byte[] CLASSES = new byte[256];
+
+    static {
+        for (int b = 0x21; b < 0x7f; b++) {
+            CLASSES[b] = WORD;
+        }
+        for (char c : new char[]{' ', '\t', '\n', 0x0b, '\f', '\r'}) {
+            CLASSES[c] = SPACE;
+        }
+    }
+
+    private WcEngine() {
+    }
+
+    static final class Counts {
+        long lines;
+        long words;
+        long bytes;
+        // Rand-Informationen, damit Wörter über Chunk-Grenzen nicht doppelt zählen
+        boolean startsInWord;
+        boolean endsInWord;
+        boolean seenWordOrSpace;
+
+        void add(Counts other) {
+            lines += other.lines;
+            words += other.words;
+            bytes += other.bytes;
+        }
+
+        private static Counts merge(Counts left, Counts right) {
+            Counts merged = new Counts();
+            merged.lines = left.lines + right.lines;
+            merged.words = left.words + right.words;
+            merged.bytes = left.bytes + right.bytes;
+            if (left.endsInWord && right.startsInWord) {
+                merged.words--;
+            }
+            merged.startsInWord = left.seenWordOrSpace ? left.startsInWord : right.startsInWord;
+            merged.endsInWord = right.seenWordOrSpace ? right.endsInWord : left.endsInWord;
+            merged.seenWordOrSpace = left.seenWordOrSpace || right.seenWordOrSpace;
+            return merged;
+        }
+    }
+
+    static Counts count(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return count(channel);
+            }
+            if (size <= CHUNK_SIZE) {
+                return new ChunkTask(channel, 0, size).compute();
+            }
+            try {
+                return ForkJoinPool.commonPool().invoke(new ChunkTask(channel, 0, size));
+            } catch (RuntimeException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Sequential fallback for inputs without a known size, such as pipes and /proc files.
+     */
+    static Counts count(ReadableByteChannel channel) throws IOException {
+        Scanner scanner = new Scanner();
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        while (channel.read(buffer) != -1) {
+            buffer.flip();
+            scanner.scan(buffer.array(), 0, buffer.limit());
+            buffer.clear();
+        }
+        return scanner.counts;
+    }
+
+    private static final class ChunkTask extends RecursiveTask<Counts> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        ChunkTask(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Counts compute() {
+            long length = end - start;
+            if (length <= CHUNK_SIZE) {
+                try {
+                    return scanMapped();
+                } catch (IOException e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+            }
+
+            // An einer Chunk-Grenze teilen, damit jedes Mapping ausgerichtet bleibt
+            long chunks = (length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            long middle = start + (chunks / 2) * CHUNK_SIZE;
+            ChunkTask left = new ChunkTask(channel, start, middle);
+            ChunkTask right = new ChunkTask(channel, middle, end);
+            left.fork();
+            Counts rightCounts = right.compute();
+            return Counts.merge(left.join(), rightCounts);
+        }
+
+        private Counts scanMapped() throws IOException {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            Scanner scanner = new Scanner();
+            byte[] buffer = new byte[SCAN_BUFFER_SIZE];
+            while (mapped.hasRemaining()) {
+                int n = Math.min(buffer.length, mapped.remaining());
+                mapped.get(buffer, 0, n);
+                scanner.scan(buffer, 0, n);
+            }
+            return scanner.counts;
+        }
+    }
+
+    private static final class Scanner {
+        private final Counts counts = new Counts();
+        private boolean inWord;
+
+        void scan(byte[] buffer, int offset, int length) {
+            long lines = counts.lines;
+            long words = counts.words;
+            boolean word = inWord;
+
+            for (int i = offset, end = offset + length; i < end; i++) {
+                int b = buffer[i] & 0xff;
+                byte type = CLASSES[b];
+                if (type == NEUTRAL) {
+                    // Nicht druckbare Bytes beginnen und beenden kein Wort
+                    continue;
+                }
+                if (!counts.seenWordOrSpace) {
+                    counts.seenWordOrSpace = true;
+                    counts.startsInWord = type == WORD;
+                }
+                if (type == WORD) {
+                    if (!word) {
+                        words++;
+                        word = true;
+                    }
+                } else {
+                    if (b == '\n') {
+                        lines++;
+                    }
+                    word = false;
+                }
+            }
+
+            counts.lines = lines;
+            counts.words = words;
+            counts.bytes += length;
+            counts.endsInWord = word;
+            inWord = word;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * {@code zip}: packs files and directories into a zip archive with the {@link ZipEngine}.
+ */
+final class ZipCommand implements Command {
+
+    private final OptionSpec options = new OptionSpec().flags("rv0123456789").values("n");
+
+    @Override
+    public String name() {
+        return "zip";
+    }
+
+    @Override
+    public OptionSpec options() {
+        return options;
+    }
+
+    @Override
+    public String[] summary() {
+        return new String[]{
+                "zip [archive] [file...]\tPack files into a zip archive",
+                "zip -r [archive] [directory...]\tPack directories recursively"
+        };
+    }
+
+    @Override
+    public String[] help() {
+        return new String[]{
+                "Usage: zip [-r] [-v] [-0..-9] [-n suffixes] [archive] [file...]",
+                "Pack files and directories into a new zip archive. \".zip\" is appended to the archive",
+                "name if it has no extension. Files are compressed on all cores in parallel.",
+                "Options:",
+                "  -r - Include the contents of directories recursively",
+                "  -v - Print every added entry with its compression",
+                "  -0 - Store only, do not compress",
+                "  -1 .. -9 - Compress faster (-1) or better (-9), default -6",
+                "  -n suffixes - Store files with these extensions uncompressed, separated by ':'",
+                "                (replaces the built-in list of compressed formats such as .gz, .jpg, .mp4)"
+        };
+    }
+
+    @Override
+    public int execute(CommandContext context, OptionSpec.Arguments arguments) {
+        if (arguments.operands.size() < 2) {
+            context.err.println("Missing argument(s) for zip command.");
+            return USAGE;
+        }
+
+        String archiveName = arguments.operand(0);
+        if (!archiveName.contains(".")) {
+            archiveName += ".zip";
+        }
+        Path archive = context.resolve(archiveName);
+
+        List<Path> sources = new ArrayList<>();
+        int status = SUCCESS;
+        for (String source : arguments.operands.subList(1, arguments.operands.size())) {
+            Path sourcePath = context.resolve(source);
+            if (!Files.exists(sourcePath, LinkOption.NOFOLLOW_LINKS)) {
+                context.err.println("File or directory not found: " + source);
+                status = FAILURE;
+            } else {
+                sources.add(sourcePath);
+            }
+        }
+        if (sources.isEmpty()) {
+            return FAILURE;
+        }
+
+        ZipEngine.Options zipOptions = new ZipEngine.Options();
+        zipOptions.recursive = arguments.has('r');
+        zipOptions.baseDirectory = context.directory();
+        for (char level = '0'; level <= '9'; level++) {
+            if (arguments.has(level)) {
+                zipOptions.level = level - '0';
+            }
+        }
+        if (arguments.has('n')) {
+            zipOptions.storedExtensions = parseSuffixes(arguments.value('n'));
+        }
+        if (arguments.has('v')) {
+            zipOptions.verbose = context.out::println;
+        }
+
+        ZipEngine.Result result;
+        try {
+            result = ZipEngine.zip(archive, sources, zipOptions);
+        } catch (FileAlreadyExistsException e) {
+            context.err.println("Archive already exists: " + archive);
+            return FAILURE;
+        } catch (IOException e) {
+            context.err.println("Failed to create " + archiveName + ": " + e.getMessage());
+            return FAILURE;
+        }
+        context.io.addRead(result.bytes);
+        context.io.addWritten(result.compressedBytes);
+
+        long saved = result.bytes == 0 ? 0 : Math.round(100.0 - 100.0 * result.compressedBytes / result.bytes);
+        context.out.printf("Zipped %d file(s), %d director%s, %s -> %s (%d%% saved) in %.2f s (%s)%n",
+                result.files, result.directories, result.directories == 1 ? "y" : "ies",
+                ListCommand.getFileSize(result.bytes), ListCommand.getFileSize(result.compressedBytes),
+                Math.max(0, saved), ListCommand.getSeconds(result.nanos),
+                ListCommand.getThroughput(result.bytes, result.nanos));
+        return result.errors.isEmpty() ? status : ListCommand.printErrors(context, result.errors);
+    }
+
+    private static Set<String> parseSuffixes(String suffixes) {
+        Set<String> extensions = new HashSet<>();
+        for (String suffix : suffixes.split(":")) {
+            // ".jpg" und "jpg" sind gleichwertig
+            String extension = suffix.startsWith(".") ? suffix.substring(1) : suffix;
+            if (!extension.isEmpty()) {
+                extensions.add(extension.toLowerCase(Locale.ROOT));
+            }
+        }
+        return extensions;
+    }
+}
@@ -0,0 +1,617 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes zip archives with the deflate work spread over all cores, the way pigz does it.
+ * Every file is cut into blocks of {@value #BLOCK_SIZE} bytes which are compressed
+ * independently on the common pool. Each block is primed with the last 32 KB of the block
+ * before it as dictionary and ends with a sync flush, so the compressed blocks simply
+ * concatenate into one ordinary deflate stream and the archive can be read by any unzip.
+ * One thread reads the files, computes the CRCs and writes the archive sequentially; it
+ * writes each local header with placeholders and patches CRC and sizes once the entry is
+ * complete, so no data descriptors are needed. Archives and entries above 4 GB or 65535
+ * entries get zip64 records. Files that are compressed already are only stored.
+ */
+final class ZipEngine {
+    static final int BLOCK_SIZE = 128 * 1024;
+
+    /** File name extensions that are stored without compression unless configured otherwise. */
+    static final Set<String> DEFAULT_STORED_EXTENSIONS = Set.of(
+            "zip", "jar", "war", "apk", "gz", "tgz", "bz2", "xz", "lz", "lz4", "lzma", "zst", "7z", "rar", "cab",
+            "jpg", "jpeg", "png", "gif", "webp", "heic", "mp3", "aac", "ogg", "flac", "mp4", "m4a", "mkv",
+            "avi", "mov", "webm", "docx", "xlsx", "pptx", "odt", "ods", "odp", "epub");
+
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    /** Files from this size on get a zip64 local header; below it deflate cannot grow past 4 GB. */
+    private static final long ZIP64_FILE_THRESHOLD = ZIP64_MAGIC - 64 * 1024 * 1024;
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY = 0x06064b50;
+    private static final int ZIP64_LOCATOR = 0x07064b50;
+    private static final int UTF8_FLAG = 0x0800;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private static final ThreadLocal<Deflater[]> DEFLATERS = ThreadLocal.withInitial(() -> new Deflater[10]);
+
+    private ZipEngine() {
+    }
+
+    static final class Options {
+        /** Include the contents of directories, not only the directory entries. */
+        boolean recursive;
+        /** 0 (store everything) to 9. */
+        int level = 6;
+        /** Entry names are relative to this directory for sources below it, else to the source's parent. */
+        Path baseDirectory;
+        /** Lower-case extensions without dot that are stored, not deflated. */
+        Set<String> storedExtensions = DEFAULT_STORED_EXTENSIONS;
+        /** Called on the calling thread for every finished entry. */
+        Consumer<String> verbose;
+    }
+
+    static final class Result {
+        long files;
+        long directories;
+        long bytes;
+        long compressedBytes;
+        long nanos;
+        final List<String> errors = new ArrayList<>();
+    }
+
+    /**
+     * One entry of the archive, collected before anything is written.
+     */
+    private static final class Entry {
+        final Path path;
+        final String name;
+        final boolean directory;
+        final long size;
+        final long modified;
+        final int mode;
+        int method;
+        boolean zip64;
+        long offset;
+        long crc;
+        long compressedSize;
+        long uncompressedSize;
+
+        Entry(Path path, String name, BasicFileAttributes attributes) {
+            this.path = path;
+            this.name = name;
+            this.directory = attributes.isDirectory();
+            this.size = directory ? 0 : attributes.size();
+            this.modified = attributes.lastModifiedTime().toMillis();
+            this.mode = mode(path, attributes);
+        }
+    }
+
+    /**
+     * One block of a file's data and the task compressing it.
+     */
+    private static final class Block {
+        final Entry entry;
+        final boolean first;
+        final boolean last;
+        final byte[] data;
+        final int length;
+        ForkJoinTask<byte[]> task;
+        int compressedLength;
+
+        Block(Entry entry, boolean first, boolean last, byte[] data, int length) {
+            this.entry = entry;
+            this.first = first;
+            this.last = last;
+            this.data = data;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Creates {@code archive}, which must not exist, from {@code sources}. Sources that cannot be read are skipped
+     * and reported in the {@link Result}; a failure while writing deletes the archive again.
+     */
+    static Result zip(Path archive, List<Path> sources, Options options) throws IOException {
+        long start = System.nanoTime();
+        Result result = new Result();
+        List<Entry> entries = collect(archive, sources, options, result);
+
+        // Ein vorhandenes Archiv wird nicht angefasst, auch nicht beim Aufräumen
+        FileChannel channel = FileChannel.open(archive, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        boolean complete = false;
+        try (channel) {
+            Writer writer = new Writer(channel, options, result);
+            for (Entry entry : entries) {
+                writer.add(entry);
+            }
+            writer.finish();
+            complete = true;
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(archive);
+            }
+            MetadataCache.get().invalidate(archive);
+        }
+
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private static List<Entry> collect(Path archive, List<Path> sources, Options options, Result result) {
+        List<Entry> entries = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        Path archivePath = archive.toAbsolutePath().normalize();
+
+        Path baseDirectory = options.baseDirectory == null ? null : options.baseDirectory.toAbsolutePath().normalize();
+
+        for (Path source : sources) {
+            Path absolute = source.toAbsolutePath().normalize();
+            Path base = baseDirectory != null && absolute.startsWith(baseDirectory) && !absolute.equals(baseDirectory)
+                    ? baseDirectory : absolute.getParent();
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+                if (!attributes.isDirectory() || !options.recursive) {
+                    addEntry(entries, names, source, base, attributes, result);
+                    continue;
+                }
+                Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                        addEntry(entries, names, dir, base, attrs, result);
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if (file.toAbsolutePath().normalize().equals(archivePath)) {
+                            // Das Archiv nicht in sich selbst packen
+                            return FileVisitResult.CONTINUE;
+                        }
+                        if (attrs.isSymbolicLink()) {
+                            try {
+                                attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                            } catch (IOException e) {
+                                result.errors.add("Skipped broken link " + file);
+                                return FileVisitResult.CONTINUE;
+                            }
+                        }
+                        addEntry(entries, names, file, base, attrs, result);
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                        result.errors.add("Failed to read " + file + ": " + exc.getMessage());
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                result.errors.add("Failed to read " + source + ": " + e.getMessage());
+            }
+        }
+        return entries;
+    }
+
+    private static void addEntry(List<Entry> entries, Set<String> names, Path path, Path base,
+                                 BasicFileAttributes attributes, Result result) {
+        if (!attributes.isDirectory() && !attributes.isRegularFile()) {
+            result.errors.add("Skipped " + path + ": not a regular file");
+            return;
+        }
+        Path absolute = path.toAbsolutePath().normalize();
+        String name = (base == null ? absolute.getRoot().relativize(absolute) : base.relativize(absolute))
+                .toString().replace('\\', '/');
+        if (attributes.isDirectory()) {
+            name += "/";
+        }
+        if (name.equals("/") || !names.add(name)) {
+            // Wurzel oder doppelt angegeben
+            return;
+        }
+        entries.add(new Entry(path, name, attributes));
+    }
+
+    /**
+     * The sequential half: reads the files, hands their blocks to the pool and writes the
+     * compressed blocks to the archive in order.
+     */
+    private static final class Writer {
+        private final FileChannel channel;
+        private final Options options;
+        private final Result result;
+        private final Deque<Block> pending = new ArrayDeque<>();
+        // Begrenzt, wie viele Blöcke gleichzeitig im Speicher sind
+        private final int maxPending = ForkJoinPool.getCommonPoolParallelism() * 4;
+        private final List<Entry> written = new ArrayList<>();
+        private final ByteBuffer header = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32 crc = new CRC32();
+
+        Writer(FileChannel channel, Options options, Result result) {
+            this.channel = channel;
+            this.options = options;
+            this.result = result;
+        }
+
+        void add(Entry entry) throws IOException {
+            if (entry.directory) {
+                entry.method = STORED;
+                pending.add(new Block(entry, true, true, new byte[0], 0));
+                drain(maxPending);
+                return;
+            }
+
+            FileChannel in;
+            try {
+                in = FileChannel.open(entry.path, StandardOpenOption.READ);
+            } catch (IOException e) {
+                result.errors.add("Failed to read " + entry.path + ": " + e.getMessage());
+                return;
+            }
+
+            entry.method = options.level == 0 || entry.size == 0 || isStored(entry.name) ? STORED : DEFLATED;
+            entry.zip64 = entry.size >= ZIP64_FILE_THRESHOLD;
+            crc.reset();
+            long total = 0;
+            byte[] previous = null;
+            try (FileChannel file = in) {
+                byte[] data = new byte[BLOCK_SIZE];
+                int length = read(file, data);
+                boolean first = true;
+                while (true) {
+                    // Ein Block im Voraus lesen, um den letzten zu erkennen
+                    byte[] next = null;
+                    int nextLength = -1;
+                    if (length == BLOCK_SIZE) {
+                        next = new byte[BLOCK_SIZE];
+                        nextLength = read(file, next);
+                    }
+                    boolean last = nextLength <= 0;
+                    crc.update(data, 0, length);
+                    total += length;
+
+                    Block block = new Block(entry, first, last, data, length);
+                    if (entry.method == DEFLATED) {
+                        block.task = ForkJoinPool.commonPool().submit(
+                                compressTask(block, previous, options.level));
+                        previous = data;
+                    }
+                    pending.add(block);
+                    drain(maxPending);
+
+                    if (last) {
+                        break;
+                    }
+                    first = false;
+                    data = next;
+                    length = nextLength;
+                }
+            } catch (IOException e) {
+                // Einträge davor sind schon geschrieben; halbe Einträge gibt es nicht
+                throw new IOException("Failed to read " + entry.path + ": " + e.getMessage(), e);
+            }
+
+            entry.crc = crc.getValue();
+            entry.uncompressedSize = total;
+            if (total >= ZIP64_FILE_THRESHOLD && !entry.zip64) {
+                throw new IOException(entry.path + " grew past 4 GB while it was being compressed");
+            }
+        }
+
+        void finish() throws IOException {
+            drain(0);
+            writeCentralDirectory();
+        }
+
+        /**
+         * Writes finished blocks until at most {@code limit} are left.
+         */
+        private void drain(int limit) throws IOException {
+            while (pending.size() > limit) {
+                Block block = pending.poll();
+                byte[] bytes = block.data;
+                int length = block.length;
+                if (block.task != null) {
+                    bytes = block.task.join();
+                    length = block.compressedLength;
+                }
+                if (block.first) {
+                    writeLocalHeader(block.entry);
+                }
+                writeFully(ByteBuffer.wrap(bytes, 0, length));
+                block.entry.compressedSize += length;
+                if (block.last) {
+                    patchLocalHeader(block.entry);
+                    complete(block.entry);
+                }
+            }
+        }
+
+        private void complete(Entry entry) {
+            written.add(entry);
+            if (entry.directory) {
+                result.directories++;
+            } else {
+                result.files++;
+                result.bytes += entry.uncompressedSize;
+            }
+            result.compressedBytes += entry.compressedSize;
+            if (options.verbose != null) {
+                options.verbose.accept(describe(entry));
+            }
+        }
+
+        private void writeLocalHeader(Entry entry) throws IOException {
+            byte[] name = entry.name.getBytes(StandardCharsets.UTF_8);
+            entry.offset = channel.position();
+            header.clear();
+            header.putInt(LOCAL_HEADER)
+                    .putShort((short) (entry.zip64 ? 45 : 20))
+                    .putShort((short) UTF8_FLAG)
+                    .putShort((short) entry.method)
+                    .putInt(dosTime(entry.modified))
+                    .putInt(0)
+                    .putInt(entry.zip64 ? (int) ZIP64_MAGIC : 0)
+                    .putInt(entry.zip64 ? (int) ZIP64_MAGIC : 0)
+                    .putShort((short) name.length)
+                    .putShort((short) (entry.zip64 ? 20 : 0))
+                    .put(name);
+            if (entry.zip64) {
+                header.putShort((short) 1).putShort((short) 16).putLong(0).putLong(0);
+            }
+            header.flip();
+            writeFully(header);
+        }
+
+        /**
+         * Fills in CRC and sizes of a local header that has been written with placeholders.
+         */
+        private void patchLocalHeader(Entry entry) throws IOException {
+            header.clear();
+            header.putInt((int) entry.crc);
+            if (entry.zip64) {
+                header.flip();
+                writeAt(header, entry.offset + 14);
+                header.clear();
+                header.putLong(entry.uncompressedSize).putLong(entry.compressedSize).flip();
+                int nameLength = entry.name.getBytes(StandardCharsets.UTF_8).length;
+                writeAt(header, entry.offset + 30 + nameLength + 4);
+            } else {
+                header.putInt((int) entry.compressedSize).putInt((int) entry.uncompressedSize).flip();
+                writeAt(header, entry.offset + 14);
+            }
+        }
+
+        private void writeCentralDirectory() throws IOException {
+            long start = channel.position();
+            header.clear();
+            for (Entry entry : written) {
+                byte[] name = entry.name.getBytes(StandardCharsets.UTF_8);
+                boolean bigSize = entry.compressedSize >= ZIP64_MAGIC || entry.uncompressedSize >= ZIP64_MAGIC;
+                boolean bigOffset = entry.offset >= ZIP64_MAGIC;
+                int extraLength = (bigSize ? 16 : 0) + (bigOffset ? 8 : 0);
+                boolean zip64 = extraLength > 0 || entry.zip64;
+                if (header.remaining() < 46 + name.length + 4 + extraLength) {
+                    flushHeader();
+                }
+                header.putInt(CENTRAL_HEADER)
+                        // Erstellt unter Unix (3), damit unzip die Rechte übernimmt
+                        .putShort((short) ((entry.mode >= 0 ? 3 << 8 : 0) | (zip64 ? 45 : 20)))
+                        .putShort((short) (zip64 ? 45 : 20))
+                        .putShort((short) UTF8_FLAG)
+                        .putShort((short) entry.method)
+                        .putInt(dosTime(entry.modified))
+                        .putInt((int) entry.crc)
+                        .putInt(bigSize ? (int) ZIP64_MAGIC : (int) entry.compressedSize)
+                        .putInt(bigSize ? (int) ZIP64_MAGIC : (int) entry.uncompressedSize)
+                        .putShort((short) name.length)
+                        .putShort((short) (extraLength == 0 ? 0 : extraLength + 4))
+                        .putShort((short) 0)
+                        .putShort((short) 0)
+                        .putShort((short) 0)
+                        .putInt(externalAttributes(entry))
+                        .putInt(bigOffset ? (int) ZIP64_MAGIC : (int) entry.offset)
+                        .put(name);
+                if (extraLength > 0) {
+                    header.putShort((short) 1).putShort((short) extraLength);
+                    if (bigSize) {
+                        header.putLong(entry.uncompressedSize).putLong(entry.compressedSize);
+                    }
+                    if (bigOffset) {
+                        header.putLong(entry.offset);
+                    }
+                }
+            }
+            flushHeader();
+
+            long end = channel.position();
+            long size = end - start;
+            int count = written.size();
+            boolean zip64 = count >= 0xFFFF || start >= ZIP64_MAGIC || size >= ZIP64_MAGIC;
+            if (zip64) {
+                header.putInt(ZIP64_END_OF_CENTRAL_DIRECTORY)
+                        .putLong(44)
+                        .putShort((short) 45)
+                        .putShort((short) 45)
+                        .putInt(0)
+                        .putInt(0)
+                        .putLong(count)
+                        .putLong(count)
+                        .putLong(size)
+                        .putLong(start);
+                header.putInt(ZIP64_LOCATOR)
+                        .putInt(0)
+                        .putLong(end)
+                        .putInt(1);
+            }
+            header.putInt(END_OF_CENTRAL_DIRECTORY)
+                    .putShort((short) 0)
+                    .putShort((short) 0)
+                    .putShort((short) Math.min(count, 0xFFFF))
+                    .putShort((short) Math.min(count, 0xFFFF))
+                    .putInt(zip64 ? (int) ZIP64_MAGIC : (int) size)
+                    .putInt(zip64 ? (int) ZIP64_MAGIC : (int) start)
+                    .putShort((short) 0);
+            flushHeader();
+        }
+
+        private void flushHeader() throws IOException {
+            header.flip();
+            writeFully(header);
+            header.clear();
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        private void writeAt(ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+        }
+
+        private boolean isStored(String name) {
+            int dot = name.lastIndexOf('.');
+            return dot >= 0 && options.storedExtensions.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Compresses one block. All blocks but the last end with a sync flush on a byte boundary
+     * so the next block's output can follow directly; the last one finishes the stream.
+     */
+    private static ForkJoinTask<byte[]> compressTask(Block block, byte[] previous, int level) {
+        return ForkJoinTask.adapt(() -> {
+            Deflater[] deflaters = DEFLATERS.get();
+            Deflater deflater = deflaters[level];
+            if (deflater == null) {
+                deflater = new Deflater(level, true);
+                deflaters[level] = deflater;
+            }
+            deflater.reset();
+            if (previous != null) {
+                // Die letzten 32 KB des Vorgängers (immer ein voller Block) als Wörterbuch,
+                // so wie sie beim Entpacken im Fenster stehen
+                deflater.setDictionary(previous, BLOCK_SIZE - DICTIONARY_SIZE, DICTIONARY_SIZE);
+            }
+            deflater.setInput(block.data, 0, block.length);
+
+            byte[] output = new byte[block.length + block.length / 1000 + 64];
+            int length = 0;
+            if (block.last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    if (length == output.length) {
+                        output = Arrays.copyOf(output, output.length * 2);
+                    }
+                    length += deflater.deflate(output, length, output.length - length);
+                }
+            } else {
+                int written;
+                do {
+                    if (length == output.length) {
+                        output = Arrays.copyOf(output, output.length * 2);
+                    }
+                    written = deflater.deflate(output, length, output.length - length, Deflater.SYNC_FLUSH);
+                    length += written;
+                } while (length == output.length);
+            }
+            block.compressedLength = length;
+            return output;
+        });
+    }
+
+    private static int read(FileChannel channel, byte[] data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        return buffer.position();
+    }
+
+    private static String describe(Entry entry) {
+        if (entry.method == STORED) {
+            return "  adding: " + entry.name + " (stored 0%)";
+        }
+        long saved = entry.uncompressedSize == 0 ? 0
+                : Math.max(0, 100 - Math.round(100.0 * entry.compressedSize / entry.uncompressedSize));
+        return "  adding: " + entry.name + " (deflated " + saved + "%)";
+    }
+
+    private static int dosTime(long millis) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+        if (time.getYear() < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return (time.getYear() - 1980) << 25 | time.getMonthValue() << 21 | time.getDayOfMonth() << 16
+                | time.getHour() << 11 | time.getMinute() << 5 | time.getSecond() >> 1;
+    }
+
+    private static int externalAttributes(Entry entry) {
+        int attributes = entry.directory ? 0x10 : 0;
+        if (entry.mode >= 0) {
+            attributes |= (entry.mode | (entry.directory ? 0040000 : 0100000)) << 16;
+        }
+        return attributes;
+    }
+
+    /**
+     * The Unix permission bits, or -1 where the file system has none.
+     */
+    private static int mode(Path path, BasicFileAttributes attributes) {
+        PosixFileAttributes posix;
+        if (attributes instanceof PosixFileAttributes) {
+            posix = (PosixFileAttributes) attributes;
+        } else if (path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            try {
+                posix = Files.readAttributes(path, PosixFileAttributes.class);
+            } catch (IOException e) {
+                return -1;
+            }
+        } else {
+            return -1;
+        }
+        int mode = 0;
+        for (PosixFilePermission permission : posix.permissions()) {
+            // OWNER_READ ist das höchste Bit (0400), OTHERS_EXECUTE das niedrigste (0001)
+            mode |= 1 << (8 - permission.ordinal());
+        }
+        return mode;
+    }
+}
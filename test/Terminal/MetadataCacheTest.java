@@ -0,0 +1,73 @@
+package Terminal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Checks that the {@link MetadataCache} keeps serving hits when a tree has more directories
+ * than it may watch. Run with {@code java -cp <classes> Terminal.MetadataCacheTest}.
+ */
+final class MetadataCacheTest {
+    private static final int WATCH_BUDGET = 64;
+
+    public static void main(String[] args) throws IOException {
+        Path root = Files.createTempDirectory("metadata-cache-test");
+        try {
+            // 1 + 10 + 100 + 200 = 311 Verzeichnisse, fast fünfmal so viele wie beobachtet werden dürfen
+            int directories = 1;
+            for (int a = 0; a < 10; a++) {
+                for (int b = 0; b < 10; b++) {
+                    for (int c = 0; c < 2; c++) {
+                        Files.createDirectories(root.resolve("a" + a).resolve("b" + b).resolve("c" + c));
+                    }
+                }
+            }
+            directories += 10 + 100 + 200;
+
+            MetadataCache cache = new MetadataCache(100_000, WATCH_BUDGET);
+            check(walk(cache, root) == directories, "first pass lists every directory");
+            check(cache.watchedDirectories() <= WATCH_BUDGET, "watches stay within the budget");
+
+            long hitsBefore = cache.hits();
+            check(walk(cache, root) == directories, "second pass lists every directory");
+            long hits = cache.hits() - hitsBefore;
+            check(hits >= WATCH_BUDGET / 2, "second pass hits the cache, got " + hits + " hit(s)");
+            check(cache.watchedDirectories() <= WATCH_BUDGET, "watches stay within the budget");
+
+            // Ein verdrängtes Verzeichnis darf keine veraltete Liste liefern
+            Path changed = root.resolve("a0").resolve("b0");
+            Files.createFile(changed.resolve("new.txt"));
+            cache.invalidate(changed.resolve("new.txt"));
+            check(cache.list(changed).stream().anyMatch(info -> info.name.equals("new.txt")),
+                    "a new file shows up in its directory");
+
+            System.out.println("MetadataCacheTest passed: " + hits + " hit(s) of " + directories
+                    + " directories on the second pass with " + WATCH_BUDGET + " watches");
+        } finally {
+            try (Stream<Path> paths = Files.walk(root)) {
+                for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    private static int walk(MetadataCache cache, Path directory) throws IOException {
+        int count = 1;
+        for (FileInfo info : cache.list(directory)) {
+            if (info.isDirectory()) {
+                count += walk(cache, info.path);
+            }
+        }
+        return count;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}